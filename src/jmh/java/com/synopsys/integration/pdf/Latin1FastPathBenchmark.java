@@ -0,0 +1,79 @@
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the Latin-1 fast path of text measurement and character replacement with the general, code point by code point path on the same text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Latin1FastPathBenchmark {
+    private static final String COMPONENT_NAME = "org.apache.commons:commons-lang3:3.12.0 ";
+    private static final String LATIN_1_NAME = "Bibliothèque de sécurité Überprüfung ";
+
+    @Param({ "component", "latin1" })
+    public String textType;
+
+    @Param({ "32", "1000" })
+    public int textLength;
+
+    private String text;
+    private final PDFont font = PDType1Font.HELVETICA;
+    private final List<PDFont> fonts = Collections.singletonList(PDType1Font.HELVETICA);
+    private PDFontMetrics fontMetrics;
+
+    @Setup
+    public void setUp() throws IOException {
+        final String source = "component".equals(textType) ? COMPONENT_NAME : LATIN_1_NAME;
+        StringBuilder builder = new StringBuilder(textLength + source.length());
+        while (builder.length() < textLength) {
+            builder.append(source);
+        }
+        text = builder.substring(0, textLength);
+        fontMetrics = PDFontMetrics.of(font);
+        // resolve every glyph once so both paths only read the tables
+        fontMetrics.getStringWidth(font, text);
+    }
+
+    @Benchmark
+    public float getStringWidthFastPath() throws IOException {
+        return fontMetrics.getStringWidth(font, text);
+    }
+
+    @Benchmark
+    public float getStringWidthGeneralPath() throws IOException {
+        return fontMetrics.getCodePointStringWidth(font, text);
+    }
+
+    @Benchmark
+    public String replaceUnsupportedCharactersFastPath() {
+        return StringManager.replaceUnsupportedCharacters(text, font);
+    }
+
+    @Benchmark
+    public String replaceUnsupportedCharactersGeneralPath() {
+        return StringManager.replaceUnsupportedCodePoints(text, fonts, RenderingListener.NO_OP);
+    }
+
+}
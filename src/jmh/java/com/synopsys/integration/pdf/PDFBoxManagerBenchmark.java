@@ -0,0 +1,90 @@
+package com.synopsys.integration.pdf;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PDFBoxManagerBenchmark {
+    private static final String IMAGE_RESOURCE = "severity-icon.png";
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+    private static final PDFont BOLD_FONT = PDType1Font.HELVETICA_BOLD;
+
+    @Param({ "100", "1000", "10000" })
+    public int rowCount;
+
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputFile = File.createTempFile("pdf-box-manager-benchmark", ".pdf");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    /**
+     * Renders a vulnerability style report, including the time spent in close() saving the document.
+     */
+    @Benchmark
+    public long renderReport() throws IOException {
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            drawReport(pdfBoxManager);
+        }
+        return outputFile.length();
+    }
+
+    /**
+     * Renders the same report without saving, to separate drawing from serialization.
+     */
+    @Benchmark
+    public int drawReportWithoutSave() throws IOException {
+        PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument());
+        drawReport(pdfBoxManager);
+        int pageCount = pdfBoxManager.getPageCount();
+        pdfBoxManager.document.close();
+        return pageCount;
+    }
+
+    private void drawReport(PDFBoxManager pdfBoxManager) throws IOException {
+        pdfBoxManager.writeText(20, 760, "Black Duck Risk Report", BOLD_FONT, 18, Color.BLACK);
+        float y = 730;
+        for (int i = 0; i < rowCount; i++) {
+            String componentName = "component-" + i + (i % 5 == 0 ? "-with-a-long-artifact-identifier-that-needs-wrapping" : "");
+            PDRectangle background = pdfBoxManager.drawRectangle(15, y - 4, 580, 14, i % 2 == 0 ? Color.WHITE : Color.LIGHT_GRAY);
+            float rowY = background.getLowerLeftY() + 4;
+            PDRectangle name = pdfBoxManager.writeWrappedText(20, rowY, 160, componentName, FONT, 8, Color.BLACK);
+            pdfBoxManager.writeWrappedText(190, rowY, 200, i % 3 == 0 ? "Apache License 2.0 OR GNU General Public License v2.0" : "MIT License", FONT, 8, Color.DARK_GRAY);
+            pdfBoxManager.drawImage(400, rowY, 8, 8, IMAGE_RESOURCE);
+            pdfBoxManager.writeLink(420, rowY, "CVE-2021-" + (10000 + i), "https://nvd.nist.gov/vuln/detail/CVE-2021-" + (10000 + i), FONT, 8);
+            y = name.getLowerLeftY() - 12;
+        }
+    }
+
+}
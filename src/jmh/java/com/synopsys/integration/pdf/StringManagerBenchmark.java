@@ -0,0 +1,83 @@
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringManagerBenchmark {
+    private static final String COMPONENT_NAME = "org.apache.commons:commons-lang3:3.12.0";
+    private static final String LICENSE_SENTENCE = "Licensed under the Apache License, Version 2.0 (the \"License\"); you may not use this file except in compliance with the License. ";
+    private static final String FILE_PATH = "/usr/local/lib/node_modules/@angular/compiler-cli/node_modules/typescript/lib/tsserverlibrary.d.ts ";
+    private static final String UNICODE_NAME = "Überwachungs-Bibliothek für Größenprüfung — 日本語 ";
+
+    @Param({ "component", "license", "path", "unicode" })
+    public String textType;
+
+    @Param({ "100", "10000" })
+    public int textLength;
+
+    private String text;
+    private final PDFont font = PDType1Font.HELVETICA;
+    private final List<PDFont> fonts = Arrays.asList(PDType1Font.HELVETICA, PDType1Font.TIMES_ROMAN, PDType1Font.SYMBOL);
+
+    @Setup
+    public void setUp() {
+        final String source;
+        if ("component".equals(textType)) {
+            source = COMPONENT_NAME + " ";
+        } else if ("license".equals(textType)) {
+            source = LICENSE_SENTENCE;
+        } else if ("path".equals(textType)) {
+            source = FILE_PATH;
+        } else {
+            source = UNICODE_NAME;
+        }
+        StringBuilder builder = new StringBuilder(textLength + source.length());
+        while (builder.length() < textLength) {
+            builder.append(source);
+        }
+        text = builder.substring(0, textLength);
+    }
+
+    @Benchmark
+    public float getStringWidth() throws IOException {
+        return StringManager.getStringWidth(font, 10, text);
+    }
+
+    @Benchmark
+    public String replaceUnsupportedCharacters() {
+        return StringManager.replaceUnsupportedCharacters(text, font);
+    }
+
+    @Benchmark
+    public String replaceUnsupportedCharactersWithFontList() {
+        return StringManager.replaceUnsupportedCharacters(text, fonts);
+    }
+
+    @Benchmark
+    public List<String> wrapToCombinedList() throws IOException {
+        return StringManager.wrapToCombinedList(font, 10, text, 200);
+    }
+
+}
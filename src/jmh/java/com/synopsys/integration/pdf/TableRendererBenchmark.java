@@ -0,0 +1,91 @@
+package com.synopsys.integration.pdf;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableRendererBenchmark {
+    private static final List<TableColumn> COLUMNS = Arrays.asList(
+        new TableColumn(20, 150, PDType1Font.HELVETICA_BOLD, 9, Color.BLACK),
+        new TableColumn(180, 200, PDType1Font.HELVETICA, 8, Color.DARK_GRAY),
+        new TableColumn(390, 180, PDType1Font.TIMES_ROMAN, 8, Color.BLUE)
+    );
+
+    @Param({ "1000", "10000" })
+    public int rowCount;
+
+    @Param({ "false", "true" })
+    public boolean parallelLayout;
+
+    private List<List<String>> rows;
+    private TableRenderer tableRenderer;
+    private ForkJoinPool forkJoinPool;
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String componentName = "component-" + i + (i % 7 == 0 ? "-with-an-unusually-long-artifact-identifier" : "");
+            String license = i % 3 == 0 ? "Apache License 2.0 OR GNU General Public License v2.0 with Classpath Exception" : "MIT License";
+            rows.add(Arrays.asList(componentName, license, "/opt/app/lib/" + componentName + "/" + i + "/dist/bundle.min.js"));
+        }
+        tableRenderer = new TableRenderer(COLUMNS, 4);
+        forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        outputFile = File.createTempFile("table-renderer-benchmark", ".pdf");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public int renderTable() throws IOException {
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            if (parallelLayout) {
+                tableRenderer.renderInParallel(pdfBoxManager, 750, rows, forkJoinPool);
+            } else {
+                tableRenderer.render(pdfBoxManager, 750, rows);
+            }
+            return pdfBoxManager.getPageCount();
+        }
+    }
+
+    @Benchmark
+    public List<TableRowLayout> layoutTable() throws IOException {
+        if (parallelLayout) {
+            return tableRenderer.layoutInParallel(rows, forkJoinPool);
+        }
+        return tableRenderer.layout(rows);
+    }
+
+}
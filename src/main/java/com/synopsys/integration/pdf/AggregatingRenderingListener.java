@@ -0,0 +1,66 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sums everything it is told about. Safe to share between managers rendering on different threads.
+ */
+public class AggregatingRenderingListener implements RenderingListener {
+    private final Map<RenderingOperation, LongAdder> operationCounts = new EnumMap<>(RenderingOperation.class);
+    private final Map<RenderingOperation, LongAdder> operationNanos = new EnumMap<>(RenderingOperation.class);
+    private final LongAdder pageSwitches = new LongAdder();
+    private final LongAdder replacedGlyphs = new LongAdder();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder saveNanos = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    public AggregatingRenderingListener() {
+        for (final RenderingOperation operation : RenderingOperation.values()) {
+            operationCounts.put(operation, new LongAdder());
+            operationNanos.put(operation, new LongAdder());
+        }
+    }
+
+    @Override
+    public void operationCompleted(final RenderingOperation operation, final long elapsedNanos) {
+        operationCounts.get(operation).increment();
+        operationNanos.get(operation).add(elapsedNanos);
+    }
+
+    @Override
+    public void pageSwitched(final int pageCount) {
+        pageSwitches.increment();
+    }
+
+    @Override
+    public void glyphsReplaced(final int replacedGlyphCount) {
+        replacedGlyphs.add(replacedGlyphCount);
+    }
+
+    @Override
+    public void documentSaved(final long elapsedNanos, final long outputBytes) {
+        saves.increment();
+        saveNanos.add(elapsedNanos);
+        savedBytes.add(outputBytes);
+    }
+
+    public RenderingMetricsSnapshot snapshot() {
+        final Map<RenderingOperation, Long> counts = new EnumMap<>(RenderingOperation.class);
+        final Map<RenderingOperation, Long> nanos = new EnumMap<>(RenderingOperation.class);
+        for (final RenderingOperation operation : RenderingOperation.values()) {
+            counts.put(operation, operationCounts.get(operation).sum());
+            nanos.put(operation, operationNanos.get(operation).sum());
+        }
+        return new RenderingMetricsSnapshot(counts, nanos, pageSwitches.sum(), replacedGlyphs.sum(), saves.sum(), saveNanos.sum(), savedBytes.sum());
+    }
+
+}
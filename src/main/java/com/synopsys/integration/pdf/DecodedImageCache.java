@@ -0,0 +1,56 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A bounded, least recently used cache of decoded classpath images that can be shared by many {@link PDFBoxManager}s, so the same icons are not decoded again for every document. Safe for concurrent use.
+ */
+public class DecodedImageCache {
+    private final Map<String, BufferedImage> decodedImages;
+
+    public DecodedImageCache(final int maximumImages) {
+        decodedImages = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, BufferedImage> eldest) {
+                return size() > maximumImages;
+            }
+        };
+    }
+
+    public BufferedImage getImage(final Class<?> resourceClass, final String resourceImageName) throws IOException {
+        final URL resource = resourceClass.getResource(resourceImageName);
+        final String key = null == resource ? resourceImageName : resource.toString();
+        synchronized (decodedImages) {
+            final BufferedImage cachedImage = decodedImages.get(key);
+            if (null != cachedImage) {
+                return cachedImage;
+            }
+        }
+
+        final BufferedImage bufferedImage = ImageIO.read(resource);
+        synchronized (decodedImages) {
+            decodedImages.put(key, bufferedImage);
+        }
+        return bufferedImage;
+    }
+
+    public int size() {
+        synchronized (decodedImages) {
+            return decodedImages.size();
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * An ordered list of fonts used together to draw text no single font covers, for example a Latin font followed by CJK and Cyrillic fonts. Every character is drawn with the first font that can encode it, and only
+ * characters no font can encode are replaced with '?' in the first font.
+ * <p>
+ * Segmenting a text into {@link FontRun}s is one pass over its code points, and the most recently used segmentations are cached, so repeated names cost a lookup. Safe for concurrent use.
+ */
+public class FontFallbackChain {
+    private static final int DEFAULT_CACHED_TEXTS = 1000;
+    private static final String REPLACEMENT = "?";
+
+    private final List<PDFont> fonts;
+    private final List<PDFontMetrics> fontMetrics;
+    private final Map<String, Segmentation> segmentations;
+
+    public FontFallbackChain(final List<PDFont> fonts) {
+        this(fonts, DEFAULT_CACHED_TEXTS);
+    }
+
+    public FontFallbackChain(final List<PDFont> fonts, final int maximumCachedTexts) {
+        if (fonts.isEmpty()) {
+            throw new IllegalArgumentException("A font fallback chain needs at least one font");
+        }
+        this.fonts = Collections.unmodifiableList(new ArrayList<>(fonts));
+        this.fontMetrics = new ArrayList<>(fonts.size());
+        for (final PDFont font : fonts) {
+            fontMetrics.add(PDFontMetrics.of(font));
+        }
+        segmentations = new LinkedHashMap<String, Segmentation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Segmentation> eldest) {
+                return size() > maximumCachedTexts;
+            }
+        };
+    }
+
+    public List<PDFont> getFonts() {
+        return fonts;
+    }
+
+    public PDFont getPrimaryFont() {
+        return fonts.get(0);
+    }
+
+    /**
+     * @return the runs of the text, in order, each drawn with a single font. Adjacent characters of the same font share a run.
+     */
+    public List<FontRun> segment(final String text) {
+        return getSegmentation(text).getRuns();
+    }
+
+    Segmentation getSegmentation(final String text) {
+        synchronized (segmentations) {
+            final Segmentation cachedSegmentation = segmentations.get(text);
+            if (null != cachedSegmentation) {
+                return cachedSegmentation;
+            }
+        }
+
+        final Segmentation segmentation = createSegmentation(text);
+        synchronized (segmentations) {
+            segmentations.put(text, segmentation);
+        }
+        return segmentation;
+    }
+
+    private Segmentation createSegmentation(final String text) {
+        final List<FontRun> runs = new ArrayList<>(1);
+        final StringBuilder runText = new StringBuilder(text.length());
+        int runFontIndex = -1;
+        int replacedGlyphCount = 0;
+        for (int i = 0; i < text.length(); ) {
+            final int codePoint = text.codePointAt(i);
+            final int codeChars = Character.charCount(codePoint);
+            final int encodingFontIndex = findFontIndex(codePoint);
+            final int fontIndex = encodingFontIndex < 0 ? 0 : encodingFontIndex;
+            if (fontIndex != runFontIndex && runText.length() > 0) {
+                runs.add(new FontRun(fonts.get(runFontIndex), runText.toString()));
+                runText.setLength(0);
+            }
+            runFontIndex = fontIndex;
+            if (encodingFontIndex < 0) {
+                runText.append(REPLACEMENT);
+                replacedGlyphCount++;
+            } else {
+                runText.append(text, i, i + codeChars);
+            }
+            i += codeChars;
+        }
+        if (runText.length() > 0) {
+            runs.add(new FontRun(fonts.get(runFontIndex), runText.toString()));
+        }
+        return new Segmentation(Collections.unmodifiableList(runs), replacedGlyphCount);
+    }
+
+    private int findFontIndex(final int codePoint) {
+        for (int i = 0; i < fonts.size(); i++) {
+            if (fontMetrics.get(i).canEncode(fonts.get(i), codePoint)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static class Segmentation {
+        private final List<FontRun> runs;
+        private final int replacedGlyphCount;
+
+        private Segmentation(final List<FontRun> runs, final int replacedGlyphCount) {
+            this.runs = runs;
+            this.replacedGlyphCount = replacedGlyphCount;
+        }
+
+        public List<FontRun> getRuns() {
+            return runs;
+        }
+
+        public int getReplacedGlyphCount() {
+            return replacedGlyphCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+/**
+ * Parses each TrueType font file once and hands every {@link PDDocument} its own subset-embedded {@link PDType0Font} built from the shared parse, so loading a font into another document costs neither a file read nor a parse.
+ * All fonts built from one file share a single set of {@link PDFontMetrics}, so string widths measured for one document are reused by the next. Safe for concurrent use; share one registry across all the documents a JVM
+ * renders.
+ * <p>
+ * The fonts are parsed from in-memory copies of the files, which lets concurrent documents read glyph data for subsetting without contending on a file handle.
+ */
+public class FontRegistry implements Closeable {
+    private final Map<String, SharedFont> sharedFonts = new ConcurrentHashMap<>();
+    private final PDDocument metricsDocument = new PDDocument();
+
+    /**
+     * Every call adds another font to the document, so load each font once per document, see {@link PDFBoxManager#loadFont(FontRegistry, File)}.
+     */
+    public PDFont loadFont(final PDDocument document, final File fontFile) throws IOException {
+        final SharedFont sharedFont = getSharedFont(fontFile.getCanonicalPath(), () -> Files.readAllBytes(fontFile.toPath()));
+        return loadDocumentFont(document, sharedFont);
+    }
+
+    public PDFont loadFont(final PDDocument document, final Class<?> resourceClass, final String resourceFontName) throws IOException {
+        final URL resource = resourceClass.getResource(resourceFontName);
+        if (null == resource) {
+            throw new FileNotFoundException("Could not find the font resource " + resourceFontName);
+        }
+        final SharedFont sharedFont = getSharedFont(resource.toString(), () -> {
+            try (InputStream fontStream = resource.openStream()) {
+                return IOUtils.toByteArray(fontStream);
+            }
+        });
+        return loadDocumentFont(document, sharedFont);
+    }
+
+    /**
+     * @return the number of font files parsed so far.
+     */
+    public int size() {
+        return sharedFonts.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (sharedFonts) {
+            for (final SharedFont sharedFont : sharedFonts.values()) {
+                sharedFont.trueTypeFont.close();
+            }
+            sharedFonts.clear();
+            metricsDocument.close();
+        }
+    }
+
+    private SharedFont getSharedFont(final String key, final FontBytesSupplier fontBytesSupplier) throws IOException {
+        final SharedFont existingFont = sharedFonts.get(key);
+        if (null != existingFont) {
+            return existingFont;
+        }
+        synchronized (sharedFonts) {
+            final SharedFont loadedFont = sharedFonts.get(key);
+            if (null != loadedFont) {
+                return loadedFont;
+            }
+            final TrueTypeFont trueTypeFont = new TTFParser().parse(new ByteArrayInputStream(fontBytesSupplier.get()));
+            // the registry's own instance answers every width and encoding question for all documents
+            final PDFont metricsFont = PDType0Font.load(metricsDocument, trueTypeFont, true);
+            final SharedFont sharedFont = new SharedFont(trueTypeFont, PDFontMetrics.forSharedFont(metricsFont));
+            sharedFonts.put(key, sharedFont);
+            return sharedFont;
+        }
+    }
+
+    private PDFont loadDocumentFont(final PDDocument document, final SharedFont sharedFont) throws IOException {
+        final PDFont font;
+        synchronized (sharedFont.trueTypeFont) {
+            font = PDType0Font.load(document, sharedFont.trueTypeFont, true);
+        }
+        PDFontMetrics.register(font, sharedFont.metrics);
+        return font;
+    }
+
+    private interface FontBytesSupplier {
+        byte[] get() throws IOException;
+
+    }
+
+    private static class SharedFont {
+        private final TrueTypeFont trueTypeFont;
+        private final PDFontMetrics metrics;
+
+        private SharedFont(final TrueTypeFont trueTypeFont, final PDFontMetrics metrics) {
+            this.trueTypeFont = trueTypeFont;
+            this.metrics = metrics;
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * A piece of text drawn with one font of a {@link FontFallbackChain}.
+ */
+public class FontRun {
+    private final PDFont font;
+    private final String text;
+
+    public FontRun(final PDFont font, final String text) {
+        this.font = font;
+        this.text = text;
+    }
+
+    public PDFont getFont() {
+        return font;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+}
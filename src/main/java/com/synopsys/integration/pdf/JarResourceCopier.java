@@ -8,21 +8,305 @@
 package com.synopsys.integration.pdf;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+public class JarResourceCopier {
+    public static final String MANIFEST_FILE_NAME = ".jar-resource-manifest";
+
+    private static final String UNKNOWN_STAMP = "-1:0";
+
+    private final String resourceDir;
+    private List<ResourceIndexEntry> directoryResources;
+
+    /**
+     * Creates a copier for a subclass that supplies its own {@link #findRelativePathFileList()}.
+     */
+    public JarResourceCopier() {
+        this(null);
+    }
+
+    /**
+     * Creates a copier whose {@link #findRelativePathFileList()} lists resourceDir, from the {@link ResourceIndex} packaged in it, or by walking the
+     * directory when it has no index.
+     */
+    public JarResourceCopier(final String resourceDir) {
+        this.resourceDir = resourceDir;
+    }
+
+    /**
+     * Copies the files of the resource directory given to the constructor.
+     */
+    public List<File> copy(final String destinationDir) throws IOException, URISyntaxException {
+        return copy(getResourceDir(), destinationDir);
+    }
 
-public abstract class JarResourceCopier {
     public List<File> copy(final String resourceDir, final String destinationDir) throws IOException, URISyntaxException {
         final List<String> fileList = findRelativePathFileList();
         return writeFiles(fileList, resourceDir, destinationDir);
     }
 
-    public abstract List<String> findRelativePathFileList();
+    /**
+     * Incrementally copies the files of the resource directory given to the constructor, see {@link #copyIncrementally(String, String, int)}.
+     */
+    public ResourceCopyResult copyIncrementally(final String destinationDir, final int maxThreads) throws IOException {
+        return copyIncrementally(getResourceDir(), destinationDir, maxThreads);
+    }
+
+    /**
+     * Copies only the resources whose destination file is missing or differs from the resource, using the manifest
+     * written into destinationDir by the previous run. A destination file is considered current when its size and
+     * modification time still match the manifest and either the resource's size and modification time match the
+     * manifest's, or its SHA-256, taken from the {@link ResourceIndex} when there is one and otherwise computed from the
+     * resource content, does. Resources are only read to be hashed when their size or modification time changed.
+     * Resources that need copying are copied by at most maxThreads threads.
+     */
+    public ResourceCopyResult copyIncrementally(final String resourceDir, final String destinationDir, final int maxThreads) throws IOException {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1: " + maxThreads);
+        }
+        final List<ResourceIndexEntry> resources = findResources(resourceDir);
+        final Properties previousManifest = readManifest(destinationDir);
+
+        final List<Callable<CopyOutcome>> tasks = new ArrayList<>(resources.size());
+        for (final ResourceIndexEntry resource : resources) {
+            tasks.add(() -> copyIfChanged(resource, resourceDir, destinationDir, previousManifest.getProperty(resource.getRelativePath())));
+        }
+
+        final List<CopyOutcome> outcomes = new ArrayList<>(tasks.size());
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(maxThreads, tasks.size())));
+        try {
+            final List<Future<CopyOutcome>> futures = executorService.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                outcomes.add(getOutcome(resources.get(i).getRelativePath(), futures.get(i)));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying resources to " + destinationDir);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        final List<File> copiedFiles = new ArrayList<>();
+        final List<File> unchangedFiles = new ArrayList<>();
+        final List<String> missingResources = new ArrayList<>();
+        final Map<String, Exception> failedResources = new LinkedHashMap<>();
+        final Properties manifest = new Properties();
+        for (final CopyOutcome outcome : outcomes) {
+            if (outcome.manifestEntry != null) {
+                manifest.setProperty(outcome.relativePath, outcome.manifestEntry);
+            }
+            if (outcome.failure != null) {
+                failedResources.put(outcome.relativePath, outcome.failure);
+            } else if (outcome.destinationFile == null) {
+                missingResources.add(outcome.relativePath);
+            } else if (outcome.copied) {
+                copiedFiles.add(outcome.destinationFile);
+            } else {
+                unchangedFiles.add(outcome.destinationFile);
+            }
+        }
+        writeManifest(destinationDir, manifest);
+        return new ResourceCopyResult(copiedFiles, unchangedFiles, missingResources, failedResources);
+    }
+
+    /**
+     * Override to supply the relative paths to copy. The default lists the resource directory given to the constructor.
+     */
+    public List<String> findRelativePathFileList() {
+        try {
+            return getDirectoryResources().stream()
+                       .map(ResourceIndexEntry::getRelativePath)
+                       .collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Pairs every relative path with its size and hash from the index when the files are copied from the directory given to the constructor, so they do not have to be read.
+     */
+    private List<ResourceIndexEntry> findResources(final String resourceDir) throws IOException {
+        final Map<String, ResourceIndexEntry> indexedResources = new HashMap<>();
+        if (resourceDir.equals(this.resourceDir)) {
+            for (final ResourceIndexEntry resource : getDirectoryResources()) {
+                indexedResources.put(resource.getRelativePath(), resource);
+            }
+        }
+        return findRelativePathFileList().stream()
+                   .map(relativePath -> indexedResources.getOrDefault(relativePath, new ResourceIndexEntry(relativePath)))
+                   .collect(Collectors.toList());
+    }
+
+    private String getResourceDir() {
+        if (null == resourceDir) {
+            throw new IllegalStateException("This copier was created without a resource directory");
+        }
+        return resourceDir;
+    }
+
+    private synchronized List<ResourceIndexEntry> getDirectoryResources() throws IOException {
+        if (null == directoryResources) {
+            directoryResources = readDirectoryResources(getResourceDir());
+        }
+        return directoryResources;
+    }
+
+    private List<ResourceIndexEntry> readDirectoryResources(final String resourceDir) throws IOException {
+        final URL indexUrl = findResource(resourceDir + ResourceIndex.INDEX_FILE_NAME);
+        if (indexUrl != null) {
+            try (InputStream indexStream = indexUrl.openStream()) {
+                return ResourceIndex.read(indexStream).getEntries();
+            }
+        }
+
+        final URL directoryUrl = findResource(resourceDir);
+        if (directoryUrl == null) {
+            throw new FileNotFoundException("Could not find the resource directory " + resourceDir);
+        }
+        final URI directoryUri;
+        try {
+            directoryUri = directoryUrl.toURI();
+        } catch (final URISyntaxException e) {
+            throw new IOException("Could not resolve the resource directory " + directoryUrl, e);
+        }
+        if (!"jar".equals(directoryUri.getScheme())) {
+            return ResourceIndex.list(Paths.get(directoryUri)).getEntries();
+        }
+        // reads the jar's central directory once instead of enumerating every entry through JarFile
+        try (FileSystem jarFileSystem = FileSystems.newFileSystem(directoryUri, Collections.emptyMap())) {
+            return ResourceIndex.list(jarFileSystem.provider().getPath(directoryUri)).getEntries();
+        } catch (final FileSystemAlreadyExistsException e) {
+            return ResourceIndex.list(Paths.get(directoryUri)).getEntries();
+        }
+    }
+
+    private CopyOutcome getOutcome(final String relativePath, final Future<CopyOutcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            return CopyOutcome.failed(relativePath, cause instanceof Exception ? (Exception) cause : e);
+        }
+    }
+
+    private CopyOutcome copyIfChanged(final ResourceIndexEntry resource, final String resourceDir, final String destinationDir, final String manifestEntry) {
+        final String relativePath = resource.getRelativePath();
+        final String resourcePath = resourceDir + relativePath;
+        final File destFile = new File(destinationDir + File.separator + relativePath);
+        try {
+            final URL resourceUrl = findResource(resourcePath);
+            if (resourceUrl == null) {
+                return CopyOutcome.missing(relativePath);
+            }
+            final String resourceStamp = readResourceStamp(resource, resourceUrl);
+            final String destinationStamp = destFile.length() + ":" + destFile.lastModified();
+            if (manifestEntry != null && destFile.isFile() && manifestEntry.startsWith(destinationStamp + ":")) {
+                if (!UNKNOWN_STAMP.equals(resourceStamp) && manifestEntry.startsWith(destinationStamp + ":" + resourceStamp + ":")) {
+                    return CopyOutcome.done(relativePath, destFile, false, manifestEntry);
+                }
+                String resourceHash = resource.getSha256();
+                if (resourceHash == null) {
+                    try (InputStream resourceStream = resourceUrl.openStream()) {
+                        resourceHash = ResourceIndex.sha256(resourceStream);
+                    }
+                }
+                if (manifestEntry.endsWith(":" + resourceHash)) {
+                    return CopyOutcome.done(relativePath, destFile, false, destinationStamp + ":" + resourceStamp + ":" + resourceHash);
+                }
+            }
+
+            final MessageDigest digest = ResourceIndex.createDigest();
+            destFile.getParentFile().mkdirs();
+            try (InputStream resourceStream = new DigestInputStream(resourceUrl.openStream(), digest)) {
+                Files.copy(resourceStream, destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            final String copiedEntry = destFile.length() + ":" + destFile.lastModified() + ":" + resourceStamp + ":" + ResourceIndex.toHex(digest.digest());
+            return CopyOutcome.done(relativePath, destFile, true, copiedEntry);
+        } catch (final IOException | RuntimeException e) {
+            return CopyOutcome.failed(relativePath, e);
+        }
+    }
+
+    /**
+     * @return the size and modification time of the resource as size:lastModified, or {@link #UNKNOWN_STAMP} when its
+     * connection reports neither.
+     */
+    private String readResourceStamp(final ResourceIndexEntry resource, final URL resourceUrl) throws IOException {
+        final URLConnection connection = resourceUrl.openConnection();
+        final long size = resource.getSize() != ResourceIndexEntry.UNKNOWN_SIZE ? resource.getSize() : connection.getContentLengthLong();
+        final long lastModified = connection.getLastModified();
+        // file connections open the file to report its headers, this closes it again without reading
+        connection.getInputStream().close();
+        if (size < 0 || lastModified <= 0) {
+            return UNKNOWN_STAMP;
+        }
+        return size + ":" + lastModified;
+    }
+
+    private URL findResource(final String resourcePath) {
+        final URL classResource = this.getClass().getResource(resourcePath);
+        if (classResource != null) {
+            return classResource;
+        }
+        return this.getClass().getClassLoader().getResource(resourcePath);
+    }
+
+    private Properties readManifest(final String destinationDir) throws IOException {
+        final Properties manifest = new Properties();
+        final Path manifestPath = new File(destinationDir, MANIFEST_FILE_NAME).toPath();
+        if (Files.isRegularFile(manifestPath)) {
+            try (Reader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+        }
+        return manifest;
+    }
+
+    private void writeManifest(final String destinationDir, final Properties manifest) throws IOException {
+        final File destination = new File(destinationDir);
+        destination.mkdirs();
+        // write to a sibling first so an interrupted run never leaves a truncated manifest behind
+        final Path manifestPath = new File(destination, MANIFEST_FILE_NAME).toPath();
+        final Path tempPath = new File(destination, MANIFEST_FILE_NAME + ".tmp").toPath();
+        try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            manifest.store(writer, "size:lastModified of the copy, size:lastModified and sha256 of the resource");
+        }
+        Files.move(tempPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+    }
 
     private List<File> writeFiles(final List<String> fileList, final String resourceDir, final String destinationDir) throws IOException {
         final List<File> writtenList = new LinkedList<>();
@@ -79,4 +363,33 @@ public abstract class JarResourceCopier {
         return this.getClass().getResourceAsStream(resourcePath);
     }
 
+    private static class CopyOutcome {
+        private final String relativePath;
+        private final File destinationFile;
+        private final boolean copied;
+        private final String manifestEntry;
+        private final Exception failure;
+
+        private CopyOutcome(final String relativePath, final File destinationFile, final boolean copied, final String manifestEntry, final Exception failure) {
+            this.relativePath = relativePath;
+            this.destinationFile = destinationFile;
+            this.copied = copied;
+            this.manifestEntry = manifestEntry;
+            this.failure = failure;
+        }
+
+        private static CopyOutcome done(final String relativePath, final File destinationFile, final boolean copied, final String manifestEntry) {
+            return new CopyOutcome(relativePath, destinationFile, copied, manifestEntry, null);
+        }
+
+        private static CopyOutcome missing(final String relativePath) {
+            return new CopyOutcome(relativePath, null, false, null, null);
+        }
+
+        private static CopyOutcome failed(final String relativePath, final Exception failure) {
+            return new CopyOutcome(relativePath, null, false, null, failure);
+        }
+
+    }
+
 }
@@ -9,38 +9,169 @@ package com.synopsys.integration.pdf;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.imageio.ImageIO;
 
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
 import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
 
 public class PDFBoxManager implements Closeable {
     public static final String BLUE_GRAY = "#46759E";
+    private static final Color BLUE_GRAY_COLOR = Color.decode(BLUE_GRAY);
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
     public final File outputFile;
+    private final OutputStream outputStream;
     public final PDDocument document;
     public PDPage currentPage;
     private PDPageContentStream contentStream;
+    private final DecodedImageCache decodedImageCache;
+    private final SharedDocumentResources sharedResources;
+    private final Map<String, PDImageXObject> imageXObjects = new HashMap<>();
+    private final Map<String, PDFont> loadedFonts = new HashMap<>();
+    private final Map<String, PDActionURI> uriActions = new HashMap<>();
+    private final List<PDAnnotation> pageAnnotations = new ArrayList<>();
+    private final boolean measuring;
+    private RenderingListener renderingListener = RenderingListener.NO_OP;
+    private WrapCache wrapCache;
+    private boolean timingEnabled;
+    private PDFormXObject pageTemplate;
+    private List<PageTextSlot> pageTextSlots = Collections.emptyList();
+    private boolean recordingPageTemplate;
+    private boolean interruptible;
+    private boolean appending;
+    private final Set<PDFont> fontsToSubset = new HashSet<>();
+
+    // graphics and text state of the current content stream, tracked so unchanged operators are not written again
+    private boolean inTextObject;
+    private float textLineX;
+    private float textLineY;
+    private PDFont currentFont;
+    private float currentFontSize;
+    private Color currentNonStrokingColor;
 
     public PDFBoxManager(final File outputFile, final PDDocument document) throws IOException {
+        this(outputFile, document, null);
+    }
+
+    /**
+     * @param decodedImageCache an optional cache of decoded images shared with other documents, or null to decode each image once per document.
+     */
+    public PDFBoxManager(final File outputFile, final PDDocument document, final DecodedImageCache decodedImageCache) throws IOException {
+        this(outputFile, null, document, decodedImageCache, null, false);
+    }
+
+    /**
+     * Creates a manager that renders one shard of a larger document, see {@link ShardedReportRenderer}. Its images and TrueType fonts are created in the target document of sharedResources, and it is never saved itself.
+     */
+    PDFBoxManager(final PDDocument shardDocument, final DecodedImageCache decodedImageCache, final SharedDocumentResources sharedResources) throws IOException {
+        this(null, null, shardDocument, decodedImageCache, sharedResources, false);
+    }
+
+    private PDFBoxManager(final File outputFile, final OutputStream outputStream, final PDDocument document, final DecodedImageCache decodedImageCache, final SharedDocumentResources sharedResources, final boolean measuring)
+        throws IOException {
         this.outputFile = outputFile;
+        this.outputStream = outputStream;
         this.document = document;
-        this.currentPage = new PDPage();
-        document.addPage(currentPage);
-        contentStream = new PDPageContentStream(document, currentPage, AppendMode.APPEND, true, false);
+        this.decodedImageCache = decodedImageCache;
+        this.sharedResources = sharedResources;
+        this.measuring = measuring;
+        startNewPage();
+    }
+
+    /**
+     * Creates a manager that lays out instead of drawing. Every write and draw method returns exactly the rectangle it would return for a real document and switches pages at exactly the same points, but no content streams,
+     * images or annotations are created and nothing is saved on close. Use it to find row heights and page breaks before rendering, for example to move a table row to the next page instead of splitting it.
+     */
+    public static PDFBoxManager createMeasuring() throws IOException {
+        return new PDFBoxManager(null, null, new PDDocument(), null, null, true);
+    }
+
+    /**
+     * Creates a manager that saves to outputStream on close, through a buffer, instead of to a file. The stream is flushed but left open, so it can be an HTTP response or an upload to object storage without a temporary file.
+     * @param decodedImageCache an optional cache of decoded images shared with other documents, or null.
+     */
+    public static PDFBoxManager createForOutputStream(final OutputStream outputStream, final PDDocument document, final DecodedImageCache decodedImageCache) throws IOException {
+        return new PDFBoxManager(null, outputStream, document, decodedImageCache, null, false);
+    }
+
+    /**
+     * Creates a manager that saves to channel on close, see {@link #createForOutputStream(OutputStream, PDDocument, DecodedImageCache)}. The channel is left open.
+     */
+    public static PDFBoxManager createForChannel(final WritableByteChannel channel, final PDDocument document, final DecodedImageCache decodedImageCache) throws IOException {
+        return createForOutputStream(Channels.newOutputStream(channel), document, decodedImageCache);
+    }
+
+    /**
+     * Creates a manager for very large reports. The document keeps at most maxHeapBytes of stream data on the heap and spills the rest to a scratch file next to the output file. The content stream of each finished page is
+     * written out of memory as soon as the next page is started. Only the page dictionaries and the last 4 KB buffer page of every content stream stay on the heap, so heap use does not grow with the content of the pages.
+     */
+    public static PDFBoxManager createStreaming(final File outputFile, final long maxHeapBytes) throws IOException {
+        return createStreaming(outputFile, maxHeapBytes, null);
+    }
+
+    public static PDFBoxManager createStreaming(final File outputFile, final long maxHeapBytes, final DecodedImageCache decodedImageCache) throws IOException {
+        final MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMixed(maxHeapBytes);
+        final File scratchDirectory = outputFile.getAbsoluteFile().getParentFile();
+        if (null != scratchDirectory && scratchDirectory.isDirectory()) {
+            memoryUsageSetting.setTempDir(scratchDirectory);
+        }
+        return new PDFBoxManager(outputFile, new PDDocument(memoryUsageSetting), decodedImageCache);
+    }
+
+    /**
+     * Opens an existing PDF to add pages after its last one through the usual write and draw methods. On close only the new pages and the objects they use are appended to the file as an incremental update, instead of
+     * writing the whole document again. The update is written to a temporary file next to the PDF, which then replaces it.
+     */
+    public static PDFBoxManager openForAppend(final File existingFile) throws IOException {
+        return openForAppend(existingFile, null);
+    }
+
+    /**
+     * @param decodedImageCache an optional cache of decoded images shared with other documents, or null.
+     */
+    public static PDFBoxManager openForAppend(final File existingFile, final DecodedImageCache decodedImageCache) throws IOException {
+        final PDDocument document = PDDocument.load(existingFile);
+        try {
+            final PDFBoxManager pdfBoxManager = new PDFBoxManager(existingFile, document, decodedImageCache);
+            pdfBoxManager.appending = true;
+            return pdfBoxManager;
+        } catch (final IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
     }
 
     public PDRectangle drawRectangleCentered(final float x, final float cellUpperY, final float width, final float height, final float cellHeight, final Color color) throws IOException {
@@ -48,11 +179,15 @@ public class PDFBoxManager implements Closeable {
     }
 
     public PDRectangle drawRectangle(final float x, final float y, final float width, final float height, final Color color) throws IOException {
+        final long startNanos = startTiming();
         final float startingY = checkYAndSwitchPage(y, height);
-        contentStream.setNonStrokingColor(color);
-        contentStream.addRect(x, startingY, width, height);
-        contentStream.fill();
-        return new PDRectangle(x, startingY, width, height);
+        if (!measuring) {
+            endTextObject();
+            setNonStrokingColor(color);
+            contentStream.addRect(x, startingY, width, height);
+            contentStream.fill();
+        }
+        return recordOperation(RenderingOperation.RECTANGLE, startNanos, new PDRectangle(x, startingY, width, height));
     }
 
     public PDRectangle drawImageCentered(final float x, final float cellUpperY, final float width, final float height, final float cellWidth, final float cellHeight, final String resourceImageName) throws IOException {
@@ -60,11 +195,67 @@ public class PDFBoxManager implements Closeable {
     }
 
     public PDRectangle drawImage(final float x, final float y, final float width, final float height, final String resourceImageName) throws IOException {
+        final long startNanos = startTiming();
         final float startingY = checkYAndSwitchPage(y, height);
-        final BufferedImage bufferedImage = ImageIO.read(getClass().getResourceAsStream(resourceImageName));
-        final PDImageXObject pdImage = LosslessFactory.createFromImage(document, bufferedImage);
-        contentStream.drawImage(pdImage, x, startingY, width, height);
-        return new PDRectangle(x, startingY, width, height);
+        if (!measuring) {
+            final PDImageXObject pdImage = getImageXObject(resourceImageName);
+            endTextObject();
+            contentStream.drawImage(pdImage, x, startingY, width, height);
+        }
+        return recordOperation(RenderingOperation.IMAGE, startNanos, new PDRectangle(x, startingY, width, height));
+    }
+
+    private PDImageXObject getImageXObject(final String resourceImageName) throws IOException {
+        PDImageXObject pdImage = imageXObjects.get(resourceImageName);
+        if (null == pdImage) {
+            if (null != sharedResources) {
+                pdImage = sharedResources.getImageXObject(resourceImageName, targetDocument -> createImageXObject(targetDocument, resourceImageName));
+            } else {
+                pdImage = createImageXObject(document, resourceImageName);
+            }
+            imageXObjects.put(resourceImageName, pdImage);
+        }
+        return pdImage;
+    }
+
+    private PDImageXObject createImageXObject(final PDDocument targetDocument, final String resourceImageName) throws IOException {
+        final BufferedImage bufferedImage;
+        if (null != decodedImageCache) {
+            bufferedImage = decodedImageCache.getImage(getClass(), resourceImageName);
+        } else {
+            bufferedImage = ImageIO.read(getClass().getResourceAsStream(resourceImageName));
+        }
+        return LosslessFactory.createFromImage(targetDocument, bufferedImage);
+    }
+
+    /**
+     * Loads a TrueType font file into this document through the shared registry, once per document.
+     */
+    public PDFont loadFont(final FontRegistry fontRegistry, final File fontFile) throws IOException {
+        final String fontKey = fontFile.getCanonicalPath();
+        PDFont font = loadedFonts.get(fontKey);
+        if (null == font) {
+            if (null != sharedResources) {
+                font = sharedResources.getFont(fontKey, targetDocument -> fontRegistry.loadFont(targetDocument, fontFile));
+            } else {
+                font = fontRegistry.loadFont(document, fontFile);
+            }
+            loadedFonts.put(fontKey, font);
+        }
+        return font;
+    }
+
+    public PDFont loadFont(final FontRegistry fontRegistry, final String resourceFontName) throws IOException {
+        PDFont font = loadedFonts.get(resourceFontName);
+        if (null == font) {
+            if (null != sharedResources) {
+                font = sharedResources.getFont(resourceFontName, targetDocument -> fontRegistry.loadFont(targetDocument, getClass(), resourceFontName));
+            } else {
+                font = fontRegistry.loadFont(document, getClass(), resourceFontName);
+            }
+            loadedFonts.put(resourceFontName, font);
+        }
+        return font;
     }
 
     public PDRectangle writeTextCentered(final float x, final float y, final String text, final PDFont font, final float fontSize, final Color textColor) throws IOException {
@@ -78,18 +269,65 @@ public class PDFBoxManager implements Closeable {
     }
 
     public PDRectangle writeText(final float x, final float y, final String text, final PDFont font, final float fontSize, final Color textColor) throws IOException {
+        final long startNanos = startTiming();
         final float startingY = checkYAndSwitchPage(y, fontSize);
-        contentStream.beginText();
-        contentStream.setFont(font, fontSize);
-        contentStream.setNonStrokingColor(textColor);
-        contentStream.newLineAtOffset(x, startingY);
-        final String fixedText = StringManager.replaceUnsupportedCharacters(text, font);
-        contentStream.showText(fixedText);
-        contentStream.endText();
-        return new PDRectangle(x, startingY, StringManager.getStringWidth(font, fontSize, fixedText), fontSize);
+        final String fixedText = showText(x, startingY, text, font, fontSize, textColor);
+        return recordOperation(RenderingOperation.TEXT, startNanos, new PDRectangle(x, startingY, StringManager.getStringWidth(font, fontSize, fixedText), fontSize));
+    }
+
+    /**
+     * Writes text that mixes scripts no single font covers, such as CJK or Cyrillic names in a Latin report, drawing every run of it with the first font of the chain that can encode it.
+     */
+    public PDRectangle writeText(final float x, final float y, final String text, final FontFallbackChain fonts, final float fontSize, final Color textColor) throws IOException {
+        final long startNanos = startTiming();
+        final float startingY = checkYAndSwitchPage(y, fontSize);
+        final FontFallbackChain.Segmentation segmentation = fonts.getSegmentation(text);
+        if (segmentation.getReplacedGlyphCount() > 0) {
+            renderingListener.glyphsReplaced(segmentation.getReplacedGlyphCount());
+        }
+        float width = 0;
+        if (!measuring) {
+            moveToTextLine(x, startingY);
+            setNonStrokingColor(textColor);
+        }
+        for (final FontRun run : segmentation.getRuns()) {
+            if (!measuring) {
+                // every run continues where the one before it ended
+                setFont(run.getFont(), fontSize);
+                showTextInContentStream(run.getText(), run.getFont());
+            }
+            width += StringManager.getStringWidth(run.getFont(), fontSize, run.getText());
+        }
+        return recordOperation(RenderingOperation.TEXT, startNanos, new PDRectangle(x, startingY, width, fontSize));
+    }
+
+    private String showText(final float x, final float y, final String text, final PDFont font, final float fontSize, final Color textColor) throws IOException {
+        final String fixedText = StringManager.replaceUnsupportedCharacters(text, font, renderingListener);
+        if (!measuring) {
+            moveToTextLine(x, y);
+            setFont(font, fontSize);
+            setNonStrokingColor(textColor);
+            showTextInContentStream(fixedText, font);
+        }
+        return fixedText;
+    }
+
+    /**
+     * Showing text with a subset font records the glyphs to embed inside the font. The shards of one document share their subset fonts, so only those are locked; every other font is drawn without a lock, because
+     * fonts such as {@link org.apache.pdfbox.pdmodel.font.PDType1Font#HELVETICA} are shared by every document in the JVM.
+     */
+    private void showTextInContentStream(final String text, final PDFont font) throws IOException {
+        if (null != sharedResources && font.willBeSubset()) {
+            synchronized (font) {
+                contentStream.showText(text);
+            }
+        } else {
+            contentStream.showText(text);
+        }
     }
 
     public PDRectangle writeWrappedCenteredText(final float x, final float cellUpperY, final float width, final float height, final List<String> textLines, final PDFont font, final float fontSize, final Color color) throws IOException {
+        final long startNanos = startTiming();
         final float lowestY = checkYAndSwitchPage(cellUpperY - height, fontSize);
         final int numOfLines = textLines.size();
         final int centerOfText = numOfLines / 2;
@@ -117,11 +355,12 @@ public class PDFBoxManager implements Closeable {
                 actualWidth = rectangle.getWidth();
             }
         }
-        return new PDRectangle(leftMostX, lowestY, actualWidth, height);
+        return recordOperation(RenderingOperation.WRAPPED_TEXT, startNanos, new PDRectangle(leftMostX, lowestY, actualWidth, height));
     }
 
     public PDRectangle writeWrappedVerticalCenteredText(final float x, final float cellUpperY, final float width, final float height, final List<String> textLines, final PDFont font, final float fontSize, final Color color)
         throws IOException {
+        final long startNanos = startTiming();
         final float lowestY = checkYAndSwitchPage(cellUpperY - height, fontSize);
 
         final int numOfLines = textLines.size();
@@ -145,15 +384,38 @@ public class PDFBoxManager implements Closeable {
             }
         }
 
-        return new PDRectangle(x, lowestY, actualWidth, height);
+        return recordOperation(RenderingOperation.WRAPPED_TEXT, startNanos, new PDRectangle(x, lowestY, actualWidth, height));
     }
 
     public PDRectangle writeWrappedText(final float x, final float y, final float width, final String text, final PDFont font, final float fontSize, final Color color) throws IOException {
-        final List<String> textLines = StringManager.wrapToCombinedList(font, fontSize, text, width);
-        return writeWrappedText(x, y, width, textLines, font, fontSize, color);
+        final long startNanos = startTiming();
+        final List<String> textLines = null == wrapCache ? StringManager.wrapToCombinedList(font, fontSize, text, width) : wrapCache.wrap(font, fontSize, text, width);
+        return recordOperation(RenderingOperation.WRAPPED_TEXT, startNanos, drawWrappedText(x, y, width, textLines, font, fontSize, color));
     }
 
     public PDRectangle writeWrappedText(final float x, final float y, final float width, final List<String> textLines, final PDFont font, final float fontSize, final Color color) throws IOException {
+        final long startNanos = startTiming();
+        return recordOperation(RenderingOperation.WRAPPED_TEXT, startNanos, drawWrappedText(x, y, width, textLines, font, fontSize, color));
+    }
+
+    /**
+     * Wraps and writes text drawn with a {@link FontFallbackChain}, see {@link #writeText(float, float, String, FontFallbackChain, float, Color)}.
+     */
+    public PDRectangle writeWrappedText(final float x, final float y, final float width, final String text, final FontFallbackChain fonts, final float fontSize, final Color color) throws IOException {
+        final long startNanos = startTiming();
+        final List<String> textLines = StringManager.wrapToCombinedList(fonts, fontSize, text, width);
+        return recordOperation(RenderingOperation.WRAPPED_TEXT, startNanos, drawWrappedText(x, y, width, textLines, null, fonts, fontSize, color));
+    }
+
+    private PDRectangle drawWrappedText(final float x, final float y, final float width, final List<String> textLines, final PDFont font, final float fontSize, final Color color) throws IOException {
+        return drawWrappedText(x, y, width, textLines, font, null, fontSize, color);
+    }
+
+    /**
+     * Draws the lines with the fallback fonts when they are given, or else with the single font.
+     */
+    private PDRectangle drawWrappedText(final float x, final float y, final float width, final List<String> textLines, final PDFont font, final FontFallbackChain fallbackFonts, final float fontSize, final Color color)
+        throws IOException {
         final float startingY = checkYAndSwitchPage(y, fontSize);
         final int numOfLines = textLines.size();
         float actualWidth = width;
@@ -164,7 +426,7 @@ public class PDFBoxManager implements Closeable {
             if (textY < lowestY) {
                 lowestY = textY;
             }
-            final PDRectangle rectangle = writeText(x, textY, textLines.get(i), font, fontSize, color);
+            final PDRectangle rectangle = null == fallbackFonts ? writeText(x, textY, textLines.get(i), font, fontSize, color) : writeText(x, textY, textLines.get(i), fallbackFonts, fontSize, color);
             if (numOfLines == 1) {
                 actualWidth = rectangle.getWidth();
             }
@@ -174,72 +436,273 @@ public class PDFBoxManager implements Closeable {
     }
 
     public PDRectangle writeLink(final float x, final float y, final String linkText, final String linkURL, final PDFont font, final float fontSize) throws IOException {
-        final PDRectangle rectangle = writeText(x, y, linkText, font, fontSize, Color.decode(BLUE_GRAY));
+        final long startNanos = startTiming();
+        final PDRectangle rectangle = writeText(x, y, linkText, font, fontSize, BLUE_GRAY_COLOR);
         addAnnotationLinkRectangle(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(), rectangle.getWidth(), rectangle.getHeight(), linkURL);
-        return rectangle;
+        return recordOperation(RenderingOperation.LINK, startNanos, rectangle);
     }
 
     public PDRectangle writeWrappedLink(final float x, final float y, final float width, final String linkText, final String linkURL, final PDFont font, final float fontSize) throws IOException {
-        return writeWrappedLink(x, y, width, linkText, linkURL, font, fontSize, Color.decode(BLUE_GRAY));
+        return writeWrappedLink(x, y, width, linkText, linkURL, font, fontSize, BLUE_GRAY_COLOR);
     }
 
     public PDRectangle writeWrappedLink(final float x, final float y, final float width, final String linkText, final String linkURL, final PDFont font, final float fontSize, final Color color) throws IOException {
+        final long startNanos = startTiming();
         final PDRectangle rectangle = writeWrappedText(x, y, width, linkText, font, fontSize, color);
         addAnnotationLinkRectangle(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(), rectangle.getWidth(), rectangle.getHeight(), linkURL);
-        return rectangle;
+        return recordOperation(RenderingOperation.LINK, startNanos, rectangle);
     }
 
     public PDRectangle writeWrappedVerticalCenteredLink(final float x, final float cellUpperY, final float width, final float height, final List<String> linkTextLines, final String linkURL, final PDFont font, final float fontSize,
         final Color color) throws IOException {
+        final long startNanos = startTiming();
         final PDRectangle rectangle = writeWrappedVerticalCenteredText(x, cellUpperY, width, height, linkTextLines, font, fontSize, color);
         addAnnotationLinkRectangle(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(), rectangle.getWidth(), rectangle.getHeight(), linkURL);
-        return rectangle;
+        return recordOperation(RenderingOperation.LINK, startNanos, rectangle);
     }
 
     public PDRectangle writeWrappedLink(final float x, final float y, final float width, final List<String> linkTextLines, final String linkURL, final PDFont font, final float fontSize) throws IOException {
-        return writeWrappedLink(x, y, width, linkTextLines, linkURL, font, fontSize, Color.decode(BLUE_GRAY));
+        return writeWrappedLink(x, y, width, linkTextLines, linkURL, font, fontSize, BLUE_GRAY_COLOR);
     }
 
     public PDRectangle writeWrappedCenteredLink(final float x, final float rowUpperY, final float width, final float height, final List<String> linkTextLines, final String linkURL, final PDFont font, final float fontSize, final Color color)
         throws IOException {
+        final long startNanos = startTiming();
         final PDRectangle rectangle = writeWrappedCenteredText(x, rowUpperY, width, height, linkTextLines, font, fontSize, color);
         addAnnotationLinkRectangle(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(), rectangle.getWidth(), rectangle.getHeight(), linkURL);
-        return rectangle;
+        return recordOperation(RenderingOperation.LINK, startNanos, rectangle);
     }
 
     public PDRectangle writeWrappedLink(final float x, final float y, final float width, final List<String> linkTextLines, final String linkURL, final PDFont font, final float fontSize, final Color color) throws IOException {
+        final long startNanos = startTiming();
         final PDRectangle rectangle = writeWrappedText(x, y, width, linkTextLines, font, fontSize, color);
         addAnnotationLinkRectangle(rectangle.getLowerLeftX(), rectangle.getLowerLeftY(), rectangle.getWidth(), rectangle.getHeight(), linkURL);
-        return rectangle;
+        return recordOperation(RenderingOperation.LINK, startNanos, rectangle);
     }
 
-    private PDRectangle addAnnotationLinkRectangle(final float x, final float y, final float width, final float height, final String linkURL) throws IOException {
-        final float startingY = checkYAndSwitchPage(y, height);
-        final PDAnnotationLink txtLink = new PDAnnotationLink();
-        final PDRectangle position = new PDRectangle();
-        position.setLowerLeftX(x);
-        position.setLowerLeftY(startingY);
-        position.setUpperRightX(x + width);
-        position.setUpperRightY(startingY + height);
-        txtLink.setRectangle(position);
+    /**
+     * The rectangle is where the link text was drawn, so it is annotated on the current page as is. Links to the same URL share one action, and the annotations of a page are attached when the page is finished.
+     */
+    private void addAnnotationLinkRectangle(final float x, final float y, final float width, final float height, final String linkURL) throws IOException {
+        if (recordingPageTemplate) {
+            throw new IllegalStateException("Links are page annotations and cannot be part of a page template");
+        }
+        if (!measuring) {
+            final PDAnnotationLink txtLink = new PDAnnotationLink();
+            txtLink.setRectangle(new PDRectangle(x, y, width, height));
+            txtLink.setAction(getUriAction(linkURL));
+            pageAnnotations.add(txtLink);
+        }
+    }
+
+    private PDActionURI getUriAction(final String linkURL) throws IOException {
+        PDActionURI action = uriActions.get(linkURL);
+        if (null == action) {
+            if (null != sharedResources) {
+                action = sharedResources.getUriAction(linkURL, ignored -> createUriAction(linkURL));
+            } else {
+                action = createUriAction(linkURL);
+            }
+            uriActions.put(linkURL, action);
+        }
+        return action;
+    }
 
+    private PDActionURI createUriAction(final String linkURL) {
         final PDActionURI action = new PDActionURI();
         action.setURI(linkURL);
-        txtLink.setAction(action);
-
-        currentPage.getAnnotations().add(txtLink);
-        return new PDRectangle(x, startingY, width, height);
+        return action;
     }
 
     private float checkYAndSwitchPage(final float y, final float height) throws IOException {
-        if (y - 20 < 0) {
+        if (y - 20 < 0 && !recordingPageTemplate) {
+            return switchPage(height);
+        }
+        return y;
+    }
+
+    /**
+     * Finishes the current page and starts a new one.
+     * @return the y to draw something of the given height at the top of the new page.
+     */
+    public float switchPage(final float height) throws IOException {
+        if (interruptible && Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Rendering was interrupted");
+        }
+        finishCurrentPage();
+        startNewPage();
+        renderingListener.pageSwitched(getPageCount());
+        return currentPage.getMediaBox().getHeight() - 20 - height;
+    }
+
+    /**
+     * Records the content drawn by templateContent once, as a form XObject, and stamps it onto the current page and every page started afterwards, followed by the text of each slot for that page. Every page refers to the same
+     * recorded content instead of repeating its operators. Call it before drawing on the current page so the template ends up beneath the page content. Links cannot be part of a template.
+     */
+    public void setPageTemplate(final PageTemplateContent templateContent, final List<PageTextSlot> textSlots) throws IOException {
+        if (recordingPageTemplate) {
+            throw new IllegalStateException("A page template cannot be set while one is being recorded");
+        }
+        pageTextSlots = new ArrayList<>(textSlots);
+        if (measuring) {
+            return;
+        }
+
+        final PDFormXObject form = new PDFormXObject(document);
+        form.setBBox(currentPage.getMediaBox());
+        form.setResources(new PDResources());
+        endTextObject();
+        final PDPageContentStream pageContentStream = contentStream;
+        contentStream = new PDPageContentStream(document, form, form.getStream().createOutputStream(COSName.FLATE_DECODE));
+        resetGraphicsState();
+        recordingPageTemplate = true;
+        try {
+            templateContent.draw(this);
+            endTextObject();
             contentStream.close();
-            this.currentPage = new PDPage();
-            document.addPage(currentPage);
+        } finally {
+            recordingPageTemplate = false;
+            contentStream = pageContentStream;
+            resetGraphicsState();
+        }
+        pageTemplate = form;
+        stampPageTemplate();
+    }
+
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    /**
+     * @param renderingListener receives operation timings, page switches, glyph replacements and save metrics from now on. Defaults to {@link RenderingListener#NO_OP}.
+     */
+    public void setRenderingListener(final RenderingListener renderingListener) {
+        this.renderingListener = renderingListener;
+        this.timingEnabled = RenderingListener.NO_OP != renderingListener;
+    }
+
+    /**
+     * @param wrapCache reuses the lines of text wrapped before, possibly by other documents, in {@link #writeWrappedText} and the wrapped link methods. Null, the default, wraps every text again.
+     */
+    public void setWrapCache(final WrapCache wrapCache) {
+        this.wrapCache = wrapCache;
+    }
+
+    /**
+     * Makes page switches fail with an {@link InterruptedIOException} once the rendering thread is interrupted, so a cancelled report stops at its next page.
+     */
+    void setInterruptible(final boolean interruptible) {
+        this.interruptible = interruptible;
+    }
+
+    /**
+     * Finishes the current page without saving, for managers whose pages are merged into another document.
+     */
+    void finishRendering() throws IOException {
+        finishCurrentPage();
+        if (null != sharedResources) {
+            // the shard document is never saved, so the merged document embeds the glyphs its subset fonts used
+            sharedResources.addFontsToSubset(fontsToSubset);
+        }
+    }
+
+    private long startTiming() {
+        return timingEnabled ? System.nanoTime() : 0L;
+    }
+
+    private PDRectangle recordOperation(final RenderingOperation operation, final long startNanos, final PDRectangle rectangle) {
+        if (timingEnabled) {
+            renderingListener.operationCompleted(operation, System.nanoTime() - startNanos);
+        }
+        return rectangle;
+    }
+
+    private void startNewPage() throws IOException {
+        this.currentPage = new PDPage();
+        document.addPage(currentPage);
+        if (!measuring) {
             contentStream = new PDPageContentStream(document, currentPage, AppendMode.APPEND, true, false);
-            return currentPage.getMediaBox().getHeight() - 20 - height;
         }
-        return y;
+        resetGraphicsState();
+        stampPageTemplate();
+    }
+
+    private void stampPageTemplate() throws IOException {
+        if (null != pageTemplate) {
+            contentStream.drawForm(pageTemplate);
+        }
+        for (final PageTextSlot textSlot : pageTextSlots) {
+            showText(textSlot.getX(), textSlot.getY(), textSlot.getText(getPageCount()), textSlot.getFont(), textSlot.getFontSize(), textSlot.getColor());
+        }
+    }
+
+    /**
+     * Forgets the text object, font and color tracked for the content stream, for a new stream or one restored after another was drawn into.
+     */
+    private void resetGraphicsState() {
+        inTextObject = false;
+        textLineX = 0;
+        textLineY = 0;
+        currentFont = null;
+        currentFontSize = 0;
+        currentNonStrokingColor = null;
+    }
+
+    private void finishCurrentPage() throws IOException {
+        if (!pageAnnotations.isEmpty()) {
+            currentPage.setAnnotations(new ArrayList<>(pageAnnotations));
+            pageAnnotations.clear();
+        }
+        if (!measuring) {
+            endTextObject();
+            // closing writes the page content into the document's scratch buffer, which is disk backed in streaming mode
+            contentStream.close();
+            contentStream = null;
+        }
+    }
+
+    /**
+     * Consecutive lines of text share one text object, each line positioned relative to the start of the previous one.
+     */
+    private void moveToTextLine(final float x, final float y) throws IOException {
+        if (inTextObject) {
+            contentStream.newLineAtOffset(x - textLineX, y - textLineY);
+        } else {
+            contentStream.beginText();
+            contentStream.newLineAtOffset(x, y);
+            inTextObject = true;
+        }
+        textLineX = x;
+        textLineY = y;
+    }
+
+    private void endTextObject() throws IOException {
+        if (inTextObject) {
+            contentStream.endText();
+            inTextObject = false;
+        }
+    }
+
+    private void setFont(final PDFont font, final float fontSize) throws IOException {
+        if (font != currentFont || fontSize != currentFontSize) {
+            contentStream.setFont(font, fontSize);
+            if ((appending || null != sharedResources) && font.willBeSubset()) {
+                fontsToSubset.add(font);
+            }
+            currentFont = font;
+            currentFontSize = fontSize;
+        }
+    }
+
+    private void setNonStrokingColor(final Color color) throws IOException {
+        if (!color.equals(currentNonStrokingColor)) {
+            contentStream.setNonStrokingColor(color);
+            currentNonStrokingColor = color;
+        }
     }
 
     public float getApproximateWrappedStringHeight(final int numberOfTextLines, final float fontSize) {
@@ -248,8 +711,80 @@ public class PDFBoxManager implements Closeable {
 
     @Override
     public void close() throws IOException {
-        contentStream.close();
-        document.save(outputFile);
+        finishCurrentPage();
+        if (!measuring) {
+            final long startNanos = startTiming();
+            final long savedBytes = save();
+            if (timingEnabled) {
+                renderingListener.documentSaved(System.nanoTime() - startNanos, savedBytes);
+            }
+        }
         document.close();
     }
+
+    private long save() throws IOException {
+        if (appending) {
+            return saveIncremental();
+        }
+        if (null == outputStream) {
+            document.save(outputFile);
+            return outputFile.length();
+        }
+        final CountingOutputStream countingOutputStream = new CountingOutputStream(new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE));
+        document.save(countingOutputStream);
+        return countingOutputStream.count;
+    }
+
+    private long saveIncremental() throws IOException {
+        // the page tree is the only existing object that changes, the new pages and everything they use are written as new objects
+        document.getDocumentCatalog().getCOSObject().setNeedToBeUpdated(true);
+        document.getPages().getCOSObject().setNeedToBeUpdated(true);
+        // unlike save, saveIncremental does not embed the glyphs used from subset fonts
+        for (final PDFont font : fontsToSubset) {
+            font.subset();
+        }
+
+        final Path outputPath = outputFile.getAbsoluteFile().toPath();
+        final Path temporaryPath = Files.createTempFile(outputPath.getParent(), outputFile.getName(), ".tmp");
+        try {
+            try (OutputStream temporaryStream = new BufferedOutputStream(Files.newOutputStream(temporaryPath), OUTPUT_BUFFER_SIZE)) {
+                document.saveIncremental(temporaryStream);
+            }
+            // the update copies the original bytes out of the file, so it can only be replaced once the document is closed
+            document.close();
+            Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+        return outputFile.length();
+    }
+
+    /**
+     * Counts the bytes written and only flushes on close, because PDFBox closes the stream it saves to.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Caches, per code point, whether a {@link PDFont} can encode a glyph and the glyph's advance width. Each code point is resolved against the font once; every later lookup is a plain array read.
+ * <p>
+ * Entries are stored in lazily allocated pages of 256 code points. Racing threads may resolve the same code point twice, but always store the same value, so reads need no locking. Calls into the font itself are synchronized on the
+ * font because PDFBox keeps unsynchronized caches inside {@link PDFont}.
+ * <p>
+ * Latin-1 text, most of what reports contain, takes a fast path over the first page of the tables, which is allocated up front and read one char at a time without decoding code points.
+ * <p>
+ * Metrics created for a shared font, see {@link FontRegistry}, resolve every code point against that font, so any number of per-document fonts built from the same font file can be registered to one instance.
+ */
+class PDFontMetrics {
+    private static final Map<PDFont, PDFontMetrics> FONT_METRICS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int PAGE_COUNT = (Character.MAX_CODE_POINT + 1) >> PAGE_BITS;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte ENCODABLE = 1;
+    private static final byte NOT_ENCODABLE = 2;
+
+    private static final int REPLACEMENT_CODE_POINT = '?';
+
+    private final AtomicReferenceArray<byte[]> encodablePages = new AtomicReferenceArray<>(PAGE_COUNT);
+    private final AtomicReferenceArray<float[]> widthPages = new AtomicReferenceArray<>(PAGE_COUNT);
+    private final PDFont sharedFont;
+    // the first page of each table, covering Latin-1
+    private final byte[] latin1Encodable = new byte[PAGE_SIZE];
+    private final float[] latin1Widths = new float[PAGE_SIZE];
+
+    private PDFontMetrics(final PDFont sharedFont) {
+        this.sharedFont = sharedFont;
+        Arrays.fill(latin1Widths, Float.NaN);
+        encodablePages.set(0, latin1Encodable);
+        widthPages.set(0, latin1Widths);
+    }
+
+    public static PDFontMetrics of(final PDFont font) {
+        return FONT_METRICS.computeIfAbsent(font, ignored -> new PDFontMetrics(null));
+    }
+
+    public static PDFontMetrics forSharedFont(final PDFont sharedFont) {
+        return new PDFontMetrics(sharedFont);
+    }
+
+    /**
+     * Makes {@link #of(PDFont)} return metrics for a font that renders exactly like the metrics' shared font.
+     */
+    public static void register(final PDFont font, final PDFontMetrics metrics) {
+        FONT_METRICS.put(font, metrics);
+    }
+
+    public boolean canEncode(final PDFont font, final int codePoint) {
+        return canEncodeWith(resolvingFont(font), codePoint);
+    }
+
+    /**
+     * @return the unscaled advance width of the code point, or of the '?' that replaces it when the font cannot encode it.
+     */
+    public float getDisplayedWidth(final PDFont font, final int codePoint) throws IOException {
+        return getDisplayedWidthWith(resolvingFont(font), codePoint);
+    }
+
+    /**
+     * @return true when the text is entirely Latin-1 and the font can encode all of it, so no character needs to be replaced. False says nothing about text outside Latin-1.
+     */
+    public boolean canEncodeLatin1(final PDFont font, final String text) {
+        final PDFont resolvingFont = resolvingFont(font);
+        for (int i = 0; i < text.length(); i++) {
+            final char character = text.charAt(i);
+            if (character >= PAGE_SIZE) {
+                return false;
+            }
+            byte state = latin1Encodable[character];
+            if (UNKNOWN == state) {
+                state = resolveEncodable(resolvingFont, character);
+                latin1Encodable[character] = state;
+            }
+            if (ENCODABLE != state) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public float getStringWidth(final PDFont font, final String text) throws IOException {
+        final PDFont resolvingFont = resolvingFont(font);
+        float width = 0;
+        int i = 0;
+        for (; i < text.length(); i++) {
+            final char character = text.charAt(i);
+            if (character >= PAGE_SIZE) {
+                break;
+            }
+            final float characterWidth = latin1Widths[character];
+            width += Float.isNaN(characterWidth) ? getDisplayedWidthWith(resolvingFont, character) : characterWidth;
+        }
+        return addCodePointWidths(resolvingFont, text, i, width);
+    }
+
+    /**
+     * The general path of {@link #getStringWidth}, decoding every code point of the text and looking up its page.
+     */
+    float getCodePointStringWidth(final PDFont font, final String text) throws IOException {
+        return addCodePointWidths(resolvingFont(font), text, 0, 0);
+    }
+
+    private float addCodePointWidths(final PDFont resolvingFont, final String text, final int start, final float startWidth) throws IOException {
+        float width = startWidth;
+        for (int i = start; i < text.length(); ) {
+            final int codePoint = text.codePointAt(i);
+            width += getDisplayedWidthWith(resolvingFont, codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    private PDFont resolvingFont(final PDFont font) {
+        return null == sharedFont ? font : sharedFont;
+    }
+
+    private boolean canEncodeWith(final PDFont font, final int codePoint) {
+        final byte[] page = encodablePage(codePoint);
+        final int index = codePoint & PAGE_MASK;
+        byte state = page[index];
+        if (UNKNOWN == state) {
+            state = resolveEncodable(font, codePoint);
+            page[index] = state;
+        }
+        return ENCODABLE == state;
+    }
+
+    private float getDisplayedWidthWith(final PDFont font, final int codePoint) throws IOException {
+        if (canEncodeWith(font, codePoint)) {
+            return getEncodableWidth(font, codePoint);
+        }
+        return getReplacementWidth(font);
+    }
+
+    private float getReplacementWidth(final PDFont font) throws IOException {
+        if (!canEncodeWith(font, REPLACEMENT_CODE_POINT)) {
+            // let PDFBox report the failure exactly as it did before the cache existed
+            synchronized (font) {
+                return font.getStringWidth(String.valueOf((char) REPLACEMENT_CODE_POINT));
+            }
+        }
+        return getEncodableWidth(font, REPLACEMENT_CODE_POINT);
+    }
+
+    private float getEncodableWidth(final PDFont font, final int codePoint) throws IOException {
+        final float[] page = widthPage(codePoint);
+        final int index = codePoint & PAGE_MASK;
+        float width = page[index];
+        if (Float.isNaN(width)) {
+            synchronized (font) {
+                width = font.getStringWidth(new String(Character.toChars(codePoint)));
+            }
+            page[index] = width;
+        }
+        return width;
+    }
+
+    private byte resolveEncodable(final PDFont font, final int codePoint) {
+        try {
+            synchronized (font) {
+                font.encode(new String(Character.toChars(codePoint)));
+            }
+            return ENCODABLE;
+        } catch (final Exception e) {
+            // Font cannot encode glyph. Glyph will be replaced
+            return NOT_ENCODABLE;
+        }
+    }
+
+    private byte[] encodablePage(final int codePoint) {
+        final int pageIndex = codePoint >> PAGE_BITS;
+        final byte[] page = encodablePages.get(pageIndex);
+        if (null != page) {
+            return page;
+        }
+        encodablePages.compareAndSet(pageIndex, null, new byte[PAGE_SIZE]);
+        return encodablePages.get(pageIndex);
+    }
+
+    private float[] widthPage(final int codePoint) {
+        final int pageIndex = codePoint >> PAGE_BITS;
+        final float[] page = widthPages.get(pageIndex);
+        if (null != page) {
+            return page;
+        }
+        final float[] newPage = new float[PAGE_SIZE];
+        Arrays.fill(newPage, Float.NaN);
+        widthPages.compareAndSet(pageIndex, null, newPage);
+        return widthPages.get(pageIndex);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.awt.*;
+import java.util.function.IntFunction;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * A line of text that differs per page, such as the page number, written at the same position on every page that gets the page template.
+ */
+public class PageTextSlot {
+    private final float x;
+    private final float y;
+    private final PDFont font;
+    private final float fontSize;
+    private final Color color;
+    private final IntFunction<String> pageText;
+
+    /**
+     * @param pageText returns the text for a 1-based page number.
+     */
+    public PageTextSlot(final float x, final float y, final PDFont font, final float fontSize, final Color color, final IntFunction<String> pageText) {
+        this.x = x;
+        this.y = y;
+        this.font = font;
+        this.fontSize = fontSize;
+        this.color = color;
+        this.pageText = pageText;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public PDFont getFont() {
+        return font;
+    }
+
+    public float getFontSize() {
+        return fontSize;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public String getText(final int pageNumber) {
+        return pageText.apply(pageNumber);
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+/**
+ * Receives rendering metrics from {@link PDFBoxManager} and {@link StringManager}. Every method has an empty default, so implementations only override what they record.
+ * <p>
+ * Operation timings nest: a wrapped text operation includes the text operations for its lines, and a link operation includes the text it draws.
+ */
+public interface RenderingListener {
+    /**
+     * Records nothing. Managers using it skip taking timestamps altogether.
+     */
+    RenderingListener NO_OP = new RenderingListener() {
+    };
+
+    default void operationCompleted(RenderingOperation operation, long elapsedNanos) {
+    }
+
+    default void pageSwitched(int pageCount) {
+    }
+
+    default void glyphsReplaced(int replacedGlyphCount) {
+    }
+
+    default void documentSaved(long elapsedNanos, long outputBytes) {
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable copy of the totals recorded by an {@link AggregatingRenderingListener}.
+ */
+public class RenderingMetricsSnapshot {
+    private final Map<RenderingOperation, Long> operationCounts;
+    private final Map<RenderingOperation, Long> operationNanos;
+    private final long pageSwitches;
+    private final long replacedGlyphs;
+    private final long saves;
+    private final long saveNanos;
+    private final long savedBytes;
+
+    public RenderingMetricsSnapshot(final Map<RenderingOperation, Long> operationCounts, final Map<RenderingOperation, Long> operationNanos, final long pageSwitches, final long replacedGlyphs, final long saves, final long saveNanos,
+        final long savedBytes) {
+        this.operationCounts = Collections.unmodifiableMap(new EnumMap<>(operationCounts));
+        this.operationNanos = Collections.unmodifiableMap(new EnumMap<>(operationNanos));
+        this.pageSwitches = pageSwitches;
+        this.replacedGlyphs = replacedGlyphs;
+        this.saves = saves;
+        this.saveNanos = saveNanos;
+        this.savedBytes = savedBytes;
+    }
+
+    public long getOperationCount(final RenderingOperation operation) {
+        return operationCounts.getOrDefault(operation, 0L);
+    }
+
+    public long getOperationNanos(final RenderingOperation operation) {
+        return operationNanos.getOrDefault(operation, 0L);
+    }
+
+    public long getPageSwitches() {
+        return pageSwitches;
+    }
+
+    public long getReplacedGlyphs() {
+        return replacedGlyphs;
+    }
+
+    public long getSaves() {
+        return saves;
+    }
+
+    public long getSaveNanos() {
+        return saveNanos;
+    }
+
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * @return every value under a flat, dotted name such as "wrapped_text.nanos", ready to export to a monitoring system.
+     */
+    public Map<String, Long> toMap() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        for (final RenderingOperation operation : RenderingOperation.values()) {
+            final String name = operation.name().toLowerCase(Locale.ENGLISH);
+            metrics.put(name + ".count", getOperationCount(operation));
+            metrics.put(name + ".nanos", getOperationNanos(operation));
+        }
+        metrics.put("page_switches", pageSwitches);
+        metrics.put("replaced_glyphs", replacedGlyphs);
+        metrics.put("save.count", saves);
+        metrics.put("save.nanos", saveNanos);
+        metrics.put("save.bytes", savedBytes);
+        return metrics;
+    }
+
+}
@@ -0,0 +1,17 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+public enum RenderingOperation {
+    TEXT,
+    WRAPPED_TEXT,
+    IMAGE,
+    RECTANGLE,
+    LINK
+
+}
@@ -0,0 +1,19 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+
+/**
+ * Draws one report, see {@link ReportGenerationExecutor}.
+ */
+@FunctionalInterface
+public interface ReportContent {
+    void render(PDFBoxManager pdfBoxManager) throws IOException;
+
+}
@@ -0,0 +1,196 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders many reports concurrently, each with its own streaming {@link PDFBoxManager}, on a fixed pool of worker threads.
+ * <p>
+ * Every job reserves its estimated memory from a shared budget, and at most maximumPendingJobs jobs can be queued or running at once. {@link #submit(ReportJob)} blocks until the job fits, which pushes back on producers
+ * instead of letting queued documents exhaust the heap. Cancelling a job's future with interruption stops it at its next page switch and deletes its partial output. All jobs share one {@link DecodedImageCache} and one
+ * {@link FontRegistry}, so fonts loaded with {@link PDFBoxManager#loadFont(FontRegistry, String)} are parsed once for the whole batch, and one {@link WrapCache}, so labels the reports have in common are wrapped once.
+ */
+public class ReportGenerationExecutor implements Closeable {
+    private static final long MEMORY_PERMIT_BYTES = 1024;
+    private static final int WRAP_CACHE_ENTRIES = 10000;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final Semaphore pendingJobPermits;
+    private final Semaphore memoryPermits;
+    private final int memoryBudgetPermits;
+    private final DecodedImageCache decodedImageCache;
+    private final FontRegistry fontRegistry = new FontRegistry();
+    private final WrapCache wrapCache = new WrapCache(WRAP_CACHE_ENTRIES);
+
+    public ReportGenerationExecutor(final int threadCount, final long memoryBudgetBytes, final int maximumPendingJobs) {
+        this(threadCount, memoryBudgetBytes, maximumPendingJobs, new DecodedImageCache(64));
+    }
+
+    public ReportGenerationExecutor(final int threadCount, final long memoryBudgetBytes, final int maximumPendingJobs, final DecodedImageCache decodedImageCache) {
+        if (threadCount < 1 || memoryBudgetBytes < MEMORY_PERMIT_BYTES || maximumPendingJobs < 1) {
+            throw new IllegalArgumentException("The executor needs at least one thread, one pending job and 1 KB of memory");
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "report-generation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        threadPoolExecutor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        pendingJobPermits = new Semaphore(maximumPendingJobs, true);
+        memoryBudgetPermits = (int) Math.min(Integer.MAX_VALUE, memoryBudgetBytes / MEMORY_PERMIT_BYTES);
+        memoryPermits = new Semaphore(memoryBudgetPermits, true);
+        this.decodedImageCache = decodedImageCache;
+    }
+
+    /**
+     * Queues the job, first waiting until a pending job slot and the job's estimated memory are free. A job estimated above the whole budget waits for the entire budget and then runs alone.
+     */
+    public Future<ReportResult> submit(final ReportJob job) throws InterruptedException {
+        if (threadPoolExecutor.isShutdown()) {
+            throw new RejectedExecutionException("The executor has been shut down");
+        }
+        final int jobMemoryPermits = (int) Math.max(1, Math.min(memoryBudgetPermits, job.getEstimatedMemoryBytes() / MEMORY_PERMIT_BYTES));
+        pendingJobPermits.acquire();
+        try {
+            memoryPermits.acquire(jobMemoryPermits);
+        } catch (final InterruptedException e) {
+            pendingJobPermits.release();
+            throw e;
+        }
+
+        final ReportTask reportTask = new ReportTask(job, jobMemoryPermits, System.nanoTime());
+        try {
+            threadPoolExecutor.execute(reportTask);
+        } catch (final RejectedExecutionException e) {
+            reportTask.releasePermits();
+            throw e;
+        }
+        return reportTask;
+    }
+
+    public FontRegistry getFontRegistry() {
+        return fontRegistry;
+    }
+
+    public WrapCache getWrapCache() {
+        return wrapCache;
+    }
+
+    /**
+     * Cancels the jobs that have not started and interrupts the running ones.
+     */
+    public void shutdownNow() {
+        for (final Runnable queuedTask : threadPoolExecutor.shutdownNow()) {
+            ((ReportTask) queuedTask).cancel(false);
+        }
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return threadPoolExecutor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Finishes every submitted job, then releases the shared fonts.
+     */
+    @Override
+    public void close() throws IOException {
+        threadPoolExecutor.shutdown();
+        try {
+            while (!threadPoolExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting, running jobs still use the shared fonts
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for reports to finish");
+        }
+        fontRegistry.close();
+    }
+
+    private ReportResult generate(final ReportJob job, final long submittedNanos) throws IOException {
+        final long startNanos = System.nanoTime();
+        final File outputFile = job.getOutputFile();
+        final PDFBoxManager pdfBoxManager = PDFBoxManager.createStreaming(outputFile, job.getEstimatedMemoryBytes(), decodedImageCache);
+        pdfBoxManager.setInterruptible(true);
+        pdfBoxManager.setWrapCache(wrapCache);
+        final long renderedNanos;
+        final int pageCount;
+        try {
+            job.getContent().render(pdfBoxManager);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Report " + job.getName() + " was cancelled");
+            }
+            renderedNanos = System.nanoTime();
+            pageCount = pdfBoxManager.getPageCount();
+            pdfBoxManager.close();
+        } catch (final IOException | RuntimeException e) {
+            pdfBoxManager.document.close();
+            Files.deleteIfExists(outputFile.toPath());
+            throw e;
+        }
+        return new ReportResult(job.getName(), outputFile, pageCount, startNanos - submittedNanos, renderedNanos - startNanos, System.nanoTime() - renderedNanos, outputFile.length());
+    }
+
+    private void releaseJobPermits(final int jobMemoryPermits) {
+        memoryPermits.release(jobMemoryPermits);
+        pendingJobPermits.release();
+    }
+
+    private class ReportTask extends FutureTask<ReportResult> {
+        private final int jobMemoryPermits;
+        // claimed by whichever comes first, running the job or cancelling it before it ran, so the permits are released exactly once
+        private final AtomicBoolean claimed;
+
+        private ReportTask(final ReportJob job, final int jobMemoryPermits, final long submittedNanos) {
+            this(job, jobMemoryPermits, submittedNanos, new AtomicBoolean());
+        }
+
+        private ReportTask(final ReportJob job, final int jobMemoryPermits, final long submittedNanos, final AtomicBoolean claimed) {
+            super(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return generate(job, submittedNanos);
+                } finally {
+                    releaseJobPermits(jobMemoryPermits);
+                }
+            });
+            this.jobMemoryPermits = jobMemoryPermits;
+            this.claimed = claimed;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() && claimed.compareAndSet(false, true)) {
+                releasePermits();
+            }
+        }
+
+        private void releasePermits() {
+            releaseJobPermits(jobMemoryPermits);
+        }
+
+    }
+
+}
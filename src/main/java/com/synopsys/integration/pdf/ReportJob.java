@@ -0,0 +1,44 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.File;
+
+public class ReportJob {
+    private final String name;
+    private final File outputFile;
+    private final long estimatedMemoryBytes;
+    private final ReportContent content;
+
+    /**
+     * @param estimatedMemoryBytes the heap the report may use while it renders. It is reserved from the executor's memory budget, and stream data beyond it is spilled to a scratch file next to the output file.
+     */
+    public ReportJob(final String name, final File outputFile, final long estimatedMemoryBytes, final ReportContent content) {
+        this.name = name;
+        this.outputFile = outputFile;
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+        this.content = content;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public long getEstimatedMemoryBytes() {
+        return estimatedMemoryBytes;
+    }
+
+    public ReportContent getContent() {
+        return content;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.File;
+
+public class ReportResult {
+    private final String name;
+    private final File outputFile;
+    private final int pageCount;
+    private final long queuedNanos;
+    private final long renderNanos;
+    private final long saveNanos;
+    private final long savedBytes;
+
+    public ReportResult(final String name, final File outputFile, final int pageCount, final long queuedNanos, final long renderNanos, final long saveNanos, final long savedBytes) {
+        this.name = name;
+        this.outputFile = outputFile;
+        this.pageCount = pageCount;
+        this.queuedNanos = queuedNanos;
+        this.renderNanos = renderNanos;
+        this.saveNanos = saveNanos;
+        this.savedBytes = savedBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * @return the time between submitting the job and a worker starting it.
+     */
+    public long getQueuedNanos() {
+        return queuedNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public long getSaveNanos() {
+        return saveNanos;
+    }
+
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of {@link JarResourceCopier#copyIncrementally}, per relative path.
+ */
+public class ResourceCopyResult {
+    private final List<File> copiedFiles;
+    private final List<File> unchangedFiles;
+    private final List<String> missingResources;
+    private final Map<String, Exception> failedResources;
+
+    public ResourceCopyResult(final List<File> copiedFiles, final List<File> unchangedFiles, final List<String> missingResources, final Map<String, Exception> failedResources) {
+        this.copiedFiles = Collections.unmodifiableList(copiedFiles);
+        this.unchangedFiles = Collections.unmodifiableList(unchangedFiles);
+        this.missingResources = Collections.unmodifiableList(missingResources);
+        this.failedResources = Collections.unmodifiableMap(failedResources);
+    }
+
+    public List<File> getCopiedFiles() {
+        return copiedFiles;
+    }
+
+    /**
+     * @return destination files that already matched the resource and were left alone.
+     */
+    public List<File> getUnchangedFiles() {
+        return unchangedFiles;
+    }
+
+    public List<String> getMissingResources() {
+        return missingResources;
+    }
+
+    public Map<String, Exception> getFailedResources() {
+        return failedResources;
+    }
+
+    public boolean isSuccess() {
+        return missingResources.isEmpty() && failedResources.isEmpty();
+    }
+
+}
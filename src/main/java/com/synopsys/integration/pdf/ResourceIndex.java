@@ -0,0 +1,165 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A listing of the files in a resource directory, generated at build time and packaged as {@link #INDEX_FILE_NAME}
+ * inside that directory so {@link JarResourceCopier} can find the files without scanning the jar. Each line holds the
+ * SHA-256, the size and the '/' separated relative path of one file.
+ */
+public class ResourceIndex {
+    public static final String INDEX_FILE_NAME = "resource-index.txt";
+
+    private static final String HEADER = "# sha256 size relativePath";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<ResourceIndexEntry> entries;
+
+    public ResourceIndex(final List<ResourceIndexEntry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * Writes an index into each directory given as an argument, so a build can run this after processing resources.
+     */
+    public static void main(final String[] args) throws IOException {
+        for (final String directory : args) {
+            final Path directoryPath = Paths.get(directory);
+            create(directoryPath).write(directoryPath.resolve(INDEX_FILE_NAME));
+        }
+    }
+
+    public static ResourceIndex create(final Path directory) throws IOException {
+        final List<ResourceIndexEntry> entries = new ArrayList<>();
+        for (final Path file : listFiles(directory)) {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                entries.add(new ResourceIndexEntry(toRelativePath(directory, file), Files.size(file), sha256(inputStream)));
+            }
+        }
+        return new ResourceIndex(entries);
+    }
+
+    /**
+     * Lists the files under directory, which may live in any file system including a zip file system, without reading them.
+     */
+    public static ResourceIndex list(final Path directory) throws IOException {
+        final List<ResourceIndexEntry> entries = new ArrayList<>();
+        for (final Path file : listFiles(directory)) {
+            entries.add(new ResourceIndexEntry(toRelativePath(directory, file), Files.size(file), null));
+        }
+        return new ResourceIndex(entries);
+    }
+
+    public static ResourceIndex read(final InputStream inputStream) throws IOException {
+        final List<ResourceIndexEntry> entries = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final int hashEnd = line.indexOf(' ');
+            final int sizeEnd = hashEnd < 0 ? -1 : line.indexOf(' ', hashEnd + 1);
+            if (sizeEnd < 0) {
+                throw new IOException("Invalid resource index line: " + line);
+            }
+            try {
+                final long size = Long.parseLong(line.substring(hashEnd + 1, sizeEnd));
+                entries.add(new ResourceIndexEntry(line.substring(sizeEnd + 1), size, line.substring(0, hashEnd)));
+            } catch (final NumberFormatException e) {
+                throw new IOException("Invalid resource index line: " + line, e);
+            }
+        }
+        return new ResourceIndex(entries);
+    }
+
+    public void write(final Path indexFile) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (final ResourceIndexEntry entry : entries) {
+                writer.write(entry.getSha256() + " " + entry.getSize() + " " + entry.getRelativePath());
+                writer.write('\n');
+            }
+        }
+    }
+
+    public List<ResourceIndexEntry> getEntries() {
+        return entries;
+    }
+
+    public List<String> getRelativePaths() {
+        return entries.stream()
+                   .map(ResourceIndexEntry::getRelativePath)
+                   .collect(Collectors.toList());
+    }
+
+    static String sha256(final InputStream inputStream) throws IOException {
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static List<Path> listFiles(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                       .filter(Files::isRegularFile)
+                       .filter(path -> !INDEX_FILE_NAME.equals(toRelativePath(directory, path)))
+                       .sorted()
+                       .collect(Collectors.toList());
+        }
+    }
+
+    private static String toRelativePath(final Path directory, final Path file) {
+        final List<String> names = new ArrayList<>();
+        for (final Path name : directory.relativize(file)) {
+            names.add(name.toString());
+        }
+        return String.join("/", names);
+    }
+
+}
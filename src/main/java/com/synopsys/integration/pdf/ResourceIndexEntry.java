@@ -0,0 +1,45 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+public class ResourceIndexEntry {
+    public static final long UNKNOWN_SIZE = -1;
+
+    private final String relativePath;
+    private final long size;
+    private final String sha256;
+
+    public ResourceIndexEntry(final String relativePath) {
+        this(relativePath, UNKNOWN_SIZE, null);
+    }
+
+    public ResourceIndexEntry(final String relativePath, final long size, final String sha256) {
+        this.relativePath = relativePath;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    /**
+     * @return the size in bytes, or {@link #UNKNOWN_SIZE}.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the lowercase hex SHA-256 of the content, or null when it is not known ahead of time.
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+}
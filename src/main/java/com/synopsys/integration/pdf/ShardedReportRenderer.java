@@ -0,0 +1,137 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+/**
+ * Renders the sections of one large report in parallel and merges them, in order, into a single document. Each section starts on a new page and is drawn with its own {@link PDFBoxManager} into a shard document; the
+ * shards' pages, including their link annotations, are then moved into the target document without copying their content.
+ * <p>
+ * Images drawn with {@link PDFBoxManager#drawImage} and fonts loaded with {@link PDFBoxManager#loadFont} are created once in the target document and shared by all shards, so the merged file stores each of them once.
+ * Standard 14 fonts such as {@link org.apache.pdfbox.pdmodel.font.PDType1Font#HELVETICA} need no sharing.
+ */
+public class ShardedReportRenderer {
+    private final ExecutorService executorService;
+    private final DecodedImageCache decodedImageCache;
+
+    /**
+     * @param decodedImageCache an optional cache of decoded images shared with other documents, or null.
+     */
+    public ShardedReportRenderer(final ExecutorService executorService, final DecodedImageCache decodedImageCache) {
+        this.executorService = executorService;
+        this.decodedImageCache = decodedImageCache;
+    }
+
+    /**
+     * @return the page count of the merged document saved to outputFile.
+     */
+    public int render(final File outputFile, final List<ReportContent> sections) throws IOException {
+        final List<PDDocument> shardDocuments = new ArrayList<>(sections.size());
+        try (PDDocument targetDocument = new PDDocument()) {
+            final SharedDocumentResources sharedResources = new SharedDocumentResources(targetDocument);
+            final List<Future<PDDocument>> shards = new ArrayList<>(sections.size());
+            for (final ReportContent section : sections) {
+                shards.add(executorService.submit(() -> renderShard(section, sharedResources)));
+            }
+            collectShards(shards, shardDocuments);
+
+            for (final PDDocument shardDocument : shardDocuments) {
+                final List<PDPage> pages = new ArrayList<>(shardDocument.getNumberOfPages());
+                shardDocument.getPages().forEach(pages::add);
+                // the pages keep pointing at content held by the shard, so the shards stay open until the target is saved
+                for (final PDPage page : pages) {
+                    targetDocument.addPage(page);
+                }
+            }
+            sharedResources.subsetFonts();
+            targetDocument.save(outputFile);
+            return targetDocument.getNumberOfPages();
+        } finally {
+            for (final PDDocument shardDocument : shardDocuments) {
+                shardDocument.close();
+            }
+        }
+    }
+
+    private PDDocument renderShard(final ReportContent section, final SharedDocumentResources sharedResources) throws IOException {
+        final PDFBoxManager shardManager = new PDFBoxManager(new PDDocument(), decodedImageCache, sharedResources);
+        shardManager.setInterruptible(true);
+        try {
+            section.render(shardManager);
+            shardManager.finishRendering();
+            return shardManager.document;
+        } catch (final IOException | RuntimeException e) {
+            shardManager.document.close();
+            throw e;
+        }
+    }
+
+    private void collectShards(final List<Future<PDDocument>> shards, final List<PDDocument> shardDocuments) throws IOException {
+        for (int i = 0; i < shards.size(); i++) {
+            try {
+                shardDocuments.add(shards.get(i).get());
+            } catch (final InterruptedException | ExecutionException | RuntimeException e) {
+                discardShards(shards.subList(i + 1, shards.size()), shardDocuments);
+                throw toIOException(e);
+            }
+        }
+    }
+
+    private void discardShards(final List<Future<PDDocument>> shards, final List<PDDocument> shardDocuments) {
+        for (final Future<PDDocument> shard : shards) {
+            shard.cancel(true);
+        }
+        for (final Future<PDDocument> shard : shards) {
+            if (!shard.isCancelled()) {
+                try {
+                    // shards that finished before they could be cancelled are closed with the others
+                    shardDocuments.add(shard.get());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (final ExecutionException e) {
+                    // the first failure is the one reported
+                }
+            }
+        }
+    }
+
+    private IOException toIOException(final Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new InterruptedIOException("Interrupted while rendering report sections");
+        }
+        final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+
+}
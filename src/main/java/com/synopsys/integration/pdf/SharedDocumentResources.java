@@ -0,0 +1,77 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+
+/**
+ * Images, fonts and link actions created once in a target document and used by the {@link PDFBoxManager}s rendering shards of it on other threads, so the merged document stores each of them once.
+ */
+class SharedDocumentResources {
+    private final PDDocument document;
+    private final Map<String, PDImageXObject> imageXObjects = new HashMap<>();
+    private final Map<String, PDFont> fonts = new HashMap<>();
+    private final Map<String, PDActionURI> uriActions = new HashMap<>();
+    private final Set<PDFont> fontsToSubset = new HashSet<>();
+
+    SharedDocumentResources(final PDDocument document) {
+        this.document = document;
+    }
+
+    PDImageXObject getImageXObject(final String resourceImageName, final ResourceFactory<PDImageXObject> imageXObjectFactory) throws IOException {
+        return getResource(imageXObjects, resourceImageName, imageXObjectFactory);
+    }
+
+    PDFont getFont(final String fontKey, final ResourceFactory<PDFont> fontFactory) throws IOException {
+        return getResource(fonts, fontKey, fontFactory);
+    }
+
+    PDActionURI getUriAction(final String linkURL, final ResourceFactory<PDActionURI> uriActionFactory) throws IOException {
+        return getResource(uriActions, linkURL, uriActionFactory);
+    }
+
+    synchronized void addFontsToSubset(final Collection<PDFont> shardFontsToSubset) {
+        fontsToSubset.addAll(shardFontsToSubset);
+    }
+
+    /**
+     * Embeds the glyphs the shards used from each subset font, once all of them are rendered. Saving the target document only subsets the fonts set through its own content streams, and the shards' streams belong
+     * to the shard documents.
+     */
+    synchronized void subsetFonts() throws IOException {
+        for (final PDFont font : fontsToSubset) {
+            font.subset();
+        }
+    }
+
+    // creating resources is serialized because it writes into the target document's scratch storage
+    private synchronized <T> T getResource(final Map<String, T> resources, final String key, final ResourceFactory<T> resourceFactory) throws IOException {
+        T resource = resources.get(key);
+        if (null == resource) {
+            resource = resourceFactory.create(document);
+            resources.put(key, resource);
+        }
+        return resource;
+    }
+
+    interface ResourceFactory<T> {
+        T create(PDDocument document) throws IOException;
+
+    }
+
+}
@@ -9,143 +9,100 @@ package com.synopsys.integration.pdf;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
 public class StringManager {
     public static List<String> wrapToCombinedList(final PDFont font, final float fontSize, final String str, final float widthLimit) throws IOException {
-        List<String> nonBlankWords = breakIntoWordsIfTooLong(font, fontSize, str, widthLimit);
-        List<String> nonBlankTrimmedFinalStrings = recombineBrokenWordsIfPossible(font, fontSize, widthLimit, nonBlankWords);
-
-        return nonBlankTrimmedFinalStrings;
+        return new TextWrapper(font, fontSize, widthLimit).wrap(str);
     }
 
-    private static List<String> breakIntoWordsIfTooLong(PDFont font, float fontSize, String str, float widthLimit) throws IOException {
-        final List<String> words = new ArrayList<>(Arrays.asList(str.split(" ")));
-        for (int i = 0; i < words.size(); i++) {
-            final String word = words.get(i);
-            final float stringWidth = getStringWidth(font, fontSize, word);
-            if (stringWidth > widthLimit) {
-                words.remove(word);
-                final List<String> brokenStrings = breakWrapString(font, fontSize, word, widthLimit);
-                words.addAll(i, brokenStrings);
-                i = i + brokenStrings.size();
-            }
-        }
-
-        return words
-                .stream()
-                .filter(StringUtils::isNotBlank)
-                .collect(Collectors.toList());
+    /**
+     * Wraps text drawn with a {@link FontFallbackChain}, measuring every character in the font that draws it.
+     */
+    public static List<String> wrapToCombinedList(final FontFallbackChain fonts, final float fontSize, final String str, final float widthLimit) throws IOException {
+        return new TextWrapper(fonts.getFonts(), fontSize, widthLimit).wrap(str);
     }
 
-    private static List<String> recombineBrokenWordsIfPossible(PDFont font, float fontSize, float widthLimit, List<String> nonBlankWords) throws IOException {
-        List<String> finalStrings = new ArrayList<>();
-        StringBuilder currentBuilder = new StringBuilder();
-        for (final String word : nonBlankWords) {
-            if (wouldExceedLimit(currentBuilder, word, font, fontSize, widthLimit)) {
-                finalStrings.add(currentBuilder.toString());
-                currentBuilder = new StringBuilder(word);
-            } else {
-                currentBuilder.append(" ");
-                currentBuilder.append(word);
-            }
+    public static float getStringWidth(final FontFallbackChain fonts, final float fontSize, final String text) throws IOException {
+        float width = 0;
+        for (final FontRun run : fonts.segment(text)) {
+            width += getStringWidth(run.getFont(), fontSize, run.getText());
         }
-
-        finalStrings.add(currentBuilder.toString());
-
-        return finalStrings
-                .stream()
-                .filter(StringUtils::isNotBlank)
-                .map(StringUtils::trim)
-                .collect(Collectors.toList());
-    }
-
-    private static boolean wouldExceedLimit(StringBuilder builder, String toAdd, final PDFont font, final float fontSize, float widthLimit) throws IOException {
-        return getStringWidth(font, fontSize, builder.toString()) + getStringWidth(font, fontSize, toAdd) > widthLimit;
+        return width;
     }
 
     public static float getStringWidth(final PDFont font, final float fontSize, final String text) throws IOException {
-        final String fixedText = replaceUnsupportedCharacters(text, font);
-        final float rawLength = font.getStringWidth(fixedText);
+        final float rawLength = PDFontMetrics.of(font).getStringWidth(font, text);
         //TODO evaluate why we are not using 1000f???
         return rawLength * (fontSize / 960f);
     }
 
     public static List<String> breakWrapString(final PDFont font, final float fontSize, final String str, final float widthLimit) throws IOException {
-        int lastBreak = 0;
-        float maxLengthCounter = 0;
-        final int strLen = str.length();
-        final ArrayList<String> brokenUpStrings = new ArrayList<>();
-        // break up strings on non alphanumeric IF POSSIBLE
-        for (int i = 1; i < strLen; i++) {
-            if (!StringUtils.isAlphanumeric(str.charAt(i) + "") || maxLengthCounter >= widthLimit) {
-                brokenUpStrings.add(str.substring(lastBreak, i));
-                lastBreak = i;
-                maxLengthCounter = 0;
-            } else {
-                maxLengthCounter = getStringWidth(font, fontSize, str.substring(lastBreak, i));
-            }
-        }
-        // add remaining string to the list so nothing gets lost
-        if (brokenUpStrings.isEmpty() || (maxLengthCounter > 0 && maxLengthCounter < widthLimit)) {
-            brokenUpStrings.add(str.substring(lastBreak, strLen));
-        }
-
-        final List<String> finalStrings = new ArrayList<>();
-        String currentStringCombo = "";
-        // combine broken pieces if they will fit within the limit
-        for (final String currentBrokenString : brokenUpStrings) {
-            if (getStringWidth(font, fontSize, currentStringCombo) + getStringWidth(font, fontSize, currentBrokenString) > widthLimit) {
-                finalStrings.add(currentStringCombo);
-                currentStringCombo = currentBrokenString;
-            } else {
-                currentStringCombo += currentBrokenString;
-            }
-        }
-        if (currentStringCombo.length() > 0) {
-            finalStrings.add(currentStringCombo);
-        }
-
-        return finalStrings;
+        return new TextWrapper(font, fontSize, widthLimit).breakWord(str);
     }
 
     public static String replaceUnsupportedCharacters(final String text, final PDFont font) {
-        return replaceUnsupportedCharacters(text, Collections.singletonList(font));
+        return replaceUnsupportedCharacters(text, font, RenderingListener.NO_OP);
     }
 
     public static String replaceUnsupportedCharacters(final String text, final List<PDFont> fonts) {
-        String result = "";
-        if (text.length() > 0) {
-            for (int i = 0; i < text.length(); ) {
-                final int codePoint = text.codePointAt(i);
-                final int codeChars = Character.charCount(codePoint);
-                final String codePointString = text.substring(i, i + codeChars);
-                boolean canEncode = false;
-                for (final PDFont font : fonts) {
-                    try {
-                        font.encode(codePointString);
-                        canEncode = true;
-                        break;
-                    } catch (final Exception ioe) {
-                        // Font cannot encode glyph. Glyph will be replaced
-                    }
-                }
-                if (canEncode) {
-                    result += codePointString;
-                } else {
-                    result += "?";
-                }
-                i += codeChars;
+        return replaceUnsupportedCharacters(text, fonts, RenderingListener.NO_OP);
+    }
+
+    public static String replaceUnsupportedCharacters(final String text, final PDFont font, final RenderingListener renderingListener) {
+        if (PDFontMetrics.of(font).canEncodeLatin1(font, text)) {
+            return text;
+        }
+        return replaceUnsupportedCodePoints(text, Collections.singletonList(font), renderingListener);
+    }
+
+    public static String replaceUnsupportedCharacters(final String text, final List<PDFont> fonts, final RenderingListener renderingListener) {
+        if (!fonts.isEmpty() && PDFontMetrics.of(fonts.get(0)).canEncodeLatin1(fonts.get(0), text)) {
+            // the first font encodes every character, so nothing is replaced
+            return text;
+        }
+        return replaceUnsupportedCodePoints(text, fonts, renderingListener);
+    }
+
+    /**
+     * The general path of {@link #replaceUnsupportedCharacters(String, List, RenderingListener)}, trying every code point of the text against the fonts in turn.
+     */
+    static String replaceUnsupportedCodePoints(final String text, final List<PDFont> fonts, final RenderingListener renderingListener) {
+        final List<PDFontMetrics> fontMetrics = new ArrayList<>(fonts.size());
+        for (final PDFont font : fonts) {
+            fontMetrics.add(PDFontMetrics.of(font));
+        }
+
+        StringBuilder result = null;
+        int replacedGlyphCount = 0;
+        for (int i = 0; i < text.length(); ) {
+            final int codePoint = text.codePointAt(i);
+            final int codeChars = Character.charCount(codePoint);
+            boolean canEncode = false;
+            for (int fontIndex = 0; fontIndex < fonts.size() && !canEncode; fontIndex++) {
+                canEncode = fontMetrics.get(fontIndex).canEncode(fonts.get(fontIndex), codePoint);
             }
+            if (!canEncode && null == result) {
+                // only copy the text once a glyph actually has to be replaced
+                result = new StringBuilder(text.length());
+                result.append(text, 0, i);
+            }
+            if (!canEncode) {
+                result.append('?');
+                replacedGlyphCount++;
+            } else if (null != result) {
+                result.append(text, i, i + codeChars);
+            }
+            i += codeChars;
+        }
+        if (replacedGlyphCount > 0) {
+            renderingListener.glyphsReplaced(replacedGlyphCount);
         }
-        return result;
+        return null == result ? text : result.toString();
     }
 
 }
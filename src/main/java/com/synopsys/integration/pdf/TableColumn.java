@@ -0,0 +1,49 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.awt.*;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+public class TableColumn {
+    private final float x;
+    private final float width;
+    private final PDFont font;
+    private final float fontSize;
+    private final Color color;
+
+    public TableColumn(final float x, final float width, final PDFont font, final float fontSize, final Color color) {
+        this.x = x;
+        this.width = width;
+        this.font = font;
+        this.fontSize = fontSize;
+        this.color = color;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public PDFont getFont() {
+        return font;
+    }
+
+    public float getFontSize() {
+        return fontSize;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders rows of text cells as a table in two stages: the layout stage wraps and measures every cell, the draw stage replays the layouts in order into a {@link PDFBoxManager}. Layout has no side effects, so it can be spread
+ * over a {@link ForkJoinPool} while drawing stays sequential, and the document is byte for byte the same either way.
+ * <p>
+ * A row that would run off the bottom of the page is moved to the next page as a whole instead of being split.
+ */
+public class TableRenderer {
+    private static final int ROWS_PER_TASK = 64;
+
+    private final List<TableColumn> columns;
+    private final float rowSpacing;
+
+    public TableRenderer(final List<TableColumn> columns, final float rowSpacing) {
+        this.columns = columns;
+        this.rowSpacing = rowSpacing;
+    }
+
+    public float render(final PDFBoxManager pdfBoxManager, final float y, final List<List<String>> rows) throws IOException {
+        return draw(pdfBoxManager, y, layout(rows));
+    }
+
+    public float renderInParallel(final PDFBoxManager pdfBoxManager, final float y, final List<List<String>> rows, final ForkJoinPool forkJoinPool) throws IOException {
+        return draw(pdfBoxManager, y, layoutInParallel(rows, forkJoinPool));
+    }
+
+    public List<TableRowLayout> layout(final List<List<String>> rows) throws IOException {
+        final List<TableRowLayout> rowLayouts = new ArrayList<>(rows.size());
+        for (final List<String> row : rows) {
+            rowLayouts.add(layoutRow(row));
+        }
+        return rowLayouts;
+    }
+
+    public List<TableRowLayout> layoutInParallel(final List<List<String>> rows, final ForkJoinPool forkJoinPool) throws IOException {
+        final TableRowLayout[] rowLayouts = new TableRowLayout[rows.size()];
+        try {
+            forkJoinPool.invoke(new LayoutTask(rows, rowLayouts, 0, rows.size()));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return Arrays.asList(rowLayouts);
+    }
+
+    /**
+     * @return the y of the next row.
+     */
+    public float draw(final PDFBoxManager pdfBoxManager, final float y, final List<TableRowLayout> rowLayouts) throws IOException {
+        float rowY = y;
+        boolean pageHasRows = false;
+        for (final TableRowLayout rowLayout : rowLayouts) {
+            if (rowY - 20 < 0 || (pageHasRows && rowY - getLowestLineOffset(rowLayout) - 20 < 0)) {
+                rowY = pdfBoxManager.switchPage(getLargestFontSize());
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                final TableColumn column = columns.get(i);
+                pdfBoxManager.writeWrappedText(column.getX(), rowY, column.getWidth(), rowLayout.getCellLines().get(i), column.getFont(), column.getFontSize(), column.getColor());
+            }
+            rowY = rowY - rowLayout.getHeight() - rowSpacing;
+            pageHasRows = true;
+        }
+        return rowY;
+    }
+
+    private TableRowLayout layoutRow(final List<String> row) throws IOException {
+        final List<List<String>> cellLines = new ArrayList<>(columns.size());
+        float height = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            final TableColumn column = columns.get(i);
+            final List<String> lines = StringManager.wrapToCombinedList(column.getFont(), column.getFontSize(), row.get(i), column.getWidth());
+            cellLines.add(lines);
+            height = Math.max(height, lines.size() * column.getFontSize());
+        }
+        return new TableRowLayout(cellLines, height);
+    }
+
+    private float getLowestLineOffset(final TableRowLayout rowLayout) {
+        float offset = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            final int lineCount = rowLayout.getCellLines().get(i).size();
+            offset = Math.max(offset, (lineCount - 1) * columns.get(i).getFontSize());
+        }
+        return offset;
+    }
+
+    private float getLargestFontSize() {
+        float largestFontSize = 0;
+        for (final TableColumn column : columns) {
+            largestFontSize = Math.max(largestFontSize, column.getFontSize());
+        }
+        return largestFontSize;
+    }
+
+    private class LayoutTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<List<String>> rows;
+        private final TableRowLayout[] rowLayouts;
+        private final int start;
+        private final int end;
+
+        public LayoutTask(final List<List<String>> rows, final TableRowLayout[] rowLayouts, final int start, final int end) {
+            this.rows = rows;
+            this.rowLayouts = rowLayouts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= ROWS_PER_TASK) {
+                try {
+                    for (int i = start; i < end; i++) {
+                        rowLayouts[i] = layoutRow(rows.get(i));
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                final int middle = (start + end) >>> 1;
+                invokeAll(new LayoutTask(rows, rowLayouts, start, middle), new LayoutTask(rows, rowLayouts, middle, end));
+            }
+        }
+    }
+
+}
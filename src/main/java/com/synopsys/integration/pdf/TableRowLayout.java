@@ -0,0 +1,32 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.util.List;
+
+/**
+ * The wrapped lines of every cell in a table row, as computed by {@link TableRenderer#layout}.
+ */
+public class TableRowLayout {
+    private final List<List<String>> cellLines;
+    private final float height;
+
+    public TableRowLayout(final List<List<String>> cellLines, final float height) {
+        this.cellLines = cellLines;
+        this.height = height;
+    }
+
+    public List<List<String>> getCellLines() {
+        return cellLines;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Linear time implementation of the {@link StringManager} wrapping rules. Text is handled as char offsets into the source string, every code point is measured a constant number of times using running widths, and strings are
+ * only created for the pieces that are returned.
+ * <p>
+ * The line breaks are identical to the original list based implementation, including its handling of the word that follows a word too long for the limit (it is kept as is, without being broken up) and of repeated long
+ * words (the earliest kept copy is dropped in favor of the broken up pieces).
+ */
+class TextWrapper {
+    private final PDFont font;
+    private final PDFontMetrics fontMetrics;
+    private final List<PDFont> fallbackFonts;
+    private final List<PDFontMetrics> fallbackFontMetrics;
+    private final float fontScale;
+    private final float widthLimit;
+
+    public TextWrapper(final PDFont font, final float fontSize, final float widthLimit) {
+        this(Collections.singletonList(font), fontSize, widthLimit);
+    }
+
+    /**
+     * Measures every code point with the first of the fonts that can encode it, as {@link FontFallbackChain} draws it.
+     */
+    public TextWrapper(final List<PDFont> fonts, final float fontSize, final float widthLimit) {
+        this.font = fonts.get(0);
+        this.fontMetrics = PDFontMetrics.of(font);
+        this.fallbackFonts = fonts.subList(1, fonts.size());
+        this.fallbackFontMetrics = new ArrayList<>(fallbackFonts.size());
+        for (final PDFont fallbackFont : fallbackFonts) {
+            fallbackFontMetrics.add(PDFontMetrics.of(fallbackFont));
+        }
+        this.fontScale = fontSize / 960f;
+        this.widthLimit = widthLimit;
+    }
+
+    public List<String> wrap(final String text) throws IOException {
+        final List<Span> words = splitOnSpaces(text);
+        final List<Span> keptSpans = new ArrayList<>(words.size());
+        final Map<String, ArrayDeque<Span>> tooWideSpans = new HashMap<>();
+
+        int wordIndex = 0;
+        while (wordIndex < words.size()) {
+            final Span word = words.get(wordIndex);
+            if (!isTooWide(word.rawWidth)) {
+                keptSpans.add(word);
+                wordIndex++;
+                continue;
+            }
+
+            final ArrayDeque<Span> earlierCopies = tooWideSpans.get(word.toString());
+            if (null != earlierCopies && !earlierCopies.isEmpty()) {
+                earlierCopies.poll().removed = true;
+                keep(word, keptSpans, tooWideSpans);
+            }
+            for (final Span piece : breakWord(text, word.start, word.end)) {
+                keep(piece, keptSpans, tooWideSpans);
+            }
+            if (wordIndex + 1 < words.size()) {
+                keep(words.get(wordIndex + 1), keptSpans, tooWideSpans);
+            }
+            wordIndex += 2;
+        }
+
+        return combineIntoLines(text, keptSpans);
+    }
+
+    public List<String> breakWord(final String word) throws IOException {
+        final List<Span> pieces = breakWord(word, 0, word.length());
+        final List<String> brokenStrings = new ArrayList<>(pieces.size());
+        for (final Span piece : pieces) {
+            brokenStrings.add(piece.toString());
+        }
+        return brokenStrings;
+    }
+
+    private List<Span> breakWord(final String text, final int start, final int end) throws IOException {
+        // break up strings on non alphanumeric IF POSSIBLE
+        final List<Integer> breaks = new ArrayList<>();
+        breaks.add(start);
+        final RunningWidth runningWidth = new RunningWidth(text, start);
+        float maxLengthCounter = 0;
+        for (int i = start + 1; i < end; i++) {
+            if (!Character.isLetterOrDigit(text.charAt(i)) || maxLengthCounter >= widthLimit) {
+                breaks.add(i);
+                maxLengthCounter = 0;
+                runningWidth.restartAt(i);
+            } else {
+                maxLengthCounter = runningWidth.getRawWidthTo(i) * fontScale;
+            }
+        }
+        // add remaining string to the list so nothing gets lost
+        if (breaks.size() == 1 || (maxLengthCounter > 0 && maxLengthCounter < widthLimit)) {
+            breaks.add(end);
+        }
+
+        // combine broken pieces if they will fit within the limit
+        final List<Span> finalPieces = new ArrayList<>();
+        final RunningWidth comboWidth = new RunningWidth(text, start);
+        int comboStart = start;
+        int comboEnd = start;
+        for (int i = 1; i < breaks.size(); i++) {
+            final int pieceStart = breaks.get(i - 1);
+            final int pieceEnd = breaks.get(i);
+            final float pieceRawWidth = addRawWidth(0, text, pieceStart, pieceEnd);
+            final float comboRawWidth = comboWidth.getRawWidthTo(comboEnd);
+            if (comboRawWidth * fontScale + pieceRawWidth * fontScale > widthLimit) {
+                finalPieces.add(new Span(text, comboStart, comboEnd, comboRawWidth));
+                comboStart = pieceStart;
+                comboWidth.restartAt(pieceStart);
+            }
+            comboEnd = pieceEnd;
+        }
+        if (comboEnd > comboStart) {
+            finalPieces.add(new Span(text, comboStart, comboEnd, comboWidth.getRawWidthTo(comboEnd)));
+        }
+
+        return finalPieces;
+    }
+
+    private List<String> combineIntoLines(final String text, final List<Span> spans) throws IOException {
+        final float spaceRawWidth = getDisplayedWidth(' ');
+        final List<String> lines = new ArrayList<>();
+        StringBuilder currentLine = new StringBuilder();
+        float currentLineRawWidth = 0;
+        for (final Span span : spans) {
+            if (span.removed || span.isBlank()) {
+                continue;
+            }
+            if (currentLineRawWidth * fontScale + span.rawWidth * fontScale > widthLimit) {
+                addTrimmedIfNotBlank(lines, currentLine);
+                currentLine = new StringBuilder();
+                currentLine.append(text, span.start, span.end);
+                currentLineRawWidth = span.rawWidth;
+            } else {
+                currentLine.append(' ');
+                currentLine.append(text, span.start, span.end);
+                currentLineRawWidth = addRawWidth(currentLineRawWidth + spaceRawWidth, text, span.start, span.end);
+            }
+        }
+        addTrimmedIfNotBlank(lines, currentLine);
+
+        return lines;
+    }
+
+    private void addTrimmedIfNotBlank(final List<String> lines, final StringBuilder line) {
+        final String trimmed = line.toString().trim();
+        if (!isBlank(trimmed, 0, trimmed.length())) {
+            lines.add(trimmed);
+        }
+    }
+
+    private void keep(final Span span, final List<Span> keptSpans, final Map<String, ArrayDeque<Span>> tooWideSpans) {
+        keptSpans.add(span);
+        if (isTooWide(span.rawWidth)) {
+            tooWideSpans.computeIfAbsent(span.toString(), ignored -> new ArrayDeque<>()).add(span);
+        }
+    }
+
+    private boolean isTooWide(final float rawWidth) {
+        return rawWidth * fontScale > widthLimit;
+    }
+
+    /**
+     * Mirrors {@link String#split(String)} with a single space: empty words are kept, except at the end of the text.
+     */
+    private List<Span> splitOnSpaces(final String text) throws IOException {
+        final List<Span> words = new ArrayList<>();
+        int wordStart = 0;
+        int lastNonEmptyCount = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == ' ') {
+                words.add(new Span(text, wordStart, i, addRawWidth(0, text, wordStart, i)));
+                if (i > wordStart) {
+                    lastNonEmptyCount = words.size();
+                }
+                wordStart = i + 1;
+            }
+        }
+        if (words.size() == 1) {
+            return words;
+        }
+        return words.subList(0, lastNonEmptyCount);
+    }
+
+    private float addRawWidth(final float startingRawWidth, final String text, final int start, final int end) throws IOException {
+        float rawWidth = startingRawWidth;
+        int i = start;
+        while (i < end) {
+            final int codePoint = codePointAt(text, i, end);
+            rawWidth += getDisplayedWidth(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return rawWidth;
+    }
+
+    private float getDisplayedWidth(final int codePoint) throws IOException {
+        if (!fallbackFonts.isEmpty() && !fontMetrics.canEncode(font, codePoint)) {
+            for (int i = 0; i < fallbackFonts.size(); i++) {
+                if (fallbackFontMetrics.get(i).canEncode(fallbackFonts.get(i), codePoint)) {
+                    return fallbackFontMetrics.get(i).getDisplayedWidth(fallbackFonts.get(i), codePoint);
+                }
+            }
+        }
+        return fontMetrics.getDisplayedWidth(font, codePoint);
+    }
+
+    /**
+     * @return the code point at index, treating end as the end of the text so a surrogate pair cut by end is read as a lone surrogate, just as it would be in a substring.
+     */
+    private static int codePointAt(final String text, final int index, final int end) {
+        final char high = text.charAt(index);
+        if (Character.isHighSurrogate(high) && index + 1 < end) {
+            final char low = text.charAt(index + 1);
+            if (Character.isLowSurrogate(low)) {
+                return Character.toCodePoint(high, low);
+            }
+        }
+        return high;
+    }
+
+    private static boolean isBlank(final String text, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The raw width of text from a fixed start to a growing end, where every code point is only measured once.
+     */
+    private class RunningWidth {
+        private final String text;
+        private int committedEnd;
+        private float committedRawWidth;
+
+        public RunningWidth(final String text, final int start) {
+            this.text = text;
+            restartAt(start);
+        }
+
+        public void restartAt(final int start) {
+            committedEnd = start;
+            committedRawWidth = 0;
+        }
+
+        public float getRawWidthTo(final int end) throws IOException {
+            while (committedEnd < end) {
+                final char current = text.charAt(committedEnd);
+                if (Character.isHighSurrogate(current) && committedEnd + 1 == end) {
+                    // the pair may still be completed by a later end, so do not commit the lone surrogate
+                    return committedRawWidth + getDisplayedWidth(current);
+                }
+                final int codePoint = codePointAt(text, committedEnd, end);
+                committedRawWidth += getDisplayedWidth(codePoint);
+                committedEnd += Character.charCount(codePoint);
+            }
+            return committedRawWidth;
+        }
+    }
+
+    private static class Span {
+        private final String text;
+        private final int start;
+        private final int end;
+        private final float rawWidth;
+        private String value;
+        private boolean removed;
+
+        public Span(final String text, final int start, final int end, final float rawWidth) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.rawWidth = rawWidth;
+        }
+
+        public boolean isBlank() {
+            return TextWrapper.isBlank(text, start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (null == value) {
+                value = text.substring(start, end);
+            }
+            return value;
+        }
+    }
+
+}
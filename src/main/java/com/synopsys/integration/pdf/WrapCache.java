@@ -0,0 +1,130 @@
+/*
+ * integration-reporting
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.pdf;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * A bounded, least recently used cache of {@link StringManager#wrapToCombinedList} results keyed by font metrics, font size, width limit and text, so labels repeated throughout a report are only wrapped once. Safe for
+ * concurrent use.
+ * <p>
+ * Keys hold the {@link PDFontMetrics} of the font rather than the font itself. Every document's copy of a font loaded from one {@link FontRegistry} shares those metrics, so the documents share entries, and an entry
+ * never keeps a finished document's font, or the document behind it, alive.
+ */
+public class WrapCache {
+    private final Map<WrapKey, List<String>> wrappedLines;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public WrapCache(final int maximumEntries) {
+        if (maximumEntries < 1) {
+            throw new IllegalArgumentException("The cache needs room for at least one entry");
+        }
+        wrappedLines = new LinkedHashMap<WrapKey, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<WrapKey, List<String>> eldest) {
+                if (size() > maximumEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the same lines as {@link StringManager#wrapToCombinedList}, as an unmodifiable list.
+     */
+    public List<String> wrap(final PDFont font, final float fontSize, final String text, final float widthLimit) throws IOException {
+        final WrapKey key = new WrapKey(PDFontMetrics.of(font), fontSize, widthLimit, text);
+        synchronized (wrappedLines) {
+            final List<String> cachedLines = wrappedLines.get(key);
+            if (null != cachedLines) {
+                hitCount++;
+                return cachedLines;
+            }
+            missCount++;
+        }
+
+        final List<String> lines = Collections.unmodifiableList(StringManager.wrapToCombinedList(font, fontSize, text, widthLimit));
+        synchronized (wrappedLines) {
+            wrappedLines.put(key, lines);
+        }
+        return lines;
+    }
+
+    public int size() {
+        synchronized (wrappedLines) {
+            return wrappedLines.size();
+        }
+    }
+
+    public long getHitCount() {
+        synchronized (wrappedLines) {
+            return hitCount;
+        }
+    }
+
+    public long getMissCount() {
+        synchronized (wrappedLines) {
+            return missCount;
+        }
+    }
+
+    public long getEvictionCount() {
+        synchronized (wrappedLines) {
+            return evictionCount;
+        }
+    }
+
+    private static final class WrapKey {
+        private final PDFontMetrics fontMetrics;
+        private final float fontSize;
+        private final float widthLimit;
+        private final String text;
+        private final int hashCode;
+
+        private WrapKey(final PDFontMetrics fontMetrics, final float fontSize, final float widthLimit, final String text) {
+            this.fontMetrics = fontMetrics;
+            this.fontSize = fontSize;
+            this.widthLimit = widthLimit;
+            this.text = text;
+            int hash = System.identityHashCode(fontMetrics);
+            hash = 31 * hash + Float.floatToIntBits(fontSize);
+            hash = 31 * hash + Float.floatToIntBits(widthLimit);
+            this.hashCode = 31 * hash + text.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof WrapKey)) {
+                return false;
+            }
+            final WrapKey otherKey = (WrapKey) other;
+            return fontMetrics == otherKey.fontMetrics && Float.floatToIntBits(fontSize) == Float.floatToIntBits(otherKey.fontSize) && Float.floatToIntBits(widthLimit) == Float.floatToIntBits(otherKey.widthLimit)
+                       && text.equals(otherKey.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+public class FontFallbackChainTest {
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final String CYRILLIC_NAME = "Компонент";
+
+    @Test
+    public void testTextIsSegmentedIntoRunsByFont() throws IOException {
+        try (FontRegistry fontRegistry = new FontRegistry(); PDFBoxManager pdfBoxManager = PDFBoxManager.createMeasuring()) {
+            PDFont liberationSans = pdfBoxManager.loadFont(fontRegistry, FONT_RESOURCE);
+            FontFallbackChain fonts = new FontFallbackChain(Arrays.asList(PDType1Font.HELVETICA, liberationSans));
+
+            String text = "lodash " + CYRILLIC_NAME + " 中 4.17";
+            List<FontRun> runs = fonts.segment(text);
+            assertEquals(3, runs.size());
+            assertRun(PDType1Font.HELVETICA, "lodash ", runs.get(0));
+            assertRun(liberationSans, CYRILLIC_NAME, runs.get(1));
+            // no font of the chain has the CJK glyph, so it is replaced in the first font
+            assertRun(PDType1Font.HELVETICA, " ? 4.17", runs.get(2));
+            assertSame(runs, fonts.segment(text));
+
+            float expectedWidth = StringManager.getStringWidth(PDType1Font.HELVETICA, 10, "lodash  ? 4.17") + StringManager.getStringWidth(liberationSans, 10, CYRILLIC_NAME);
+            assertEquals(expectedWidth, StringManager.getStringWidth(fonts, 10, text), 0.001f);
+        }
+    }
+
+    @Test
+    public void testMixedScriptTextIsWrappedAndDrawnAcrossFonts() throws IOException {
+        File outputFile = File.createTempFile("font-fallback", ".pdf");
+        outputFile.deleteOnExit();
+        AtomicInteger replacedGlyphs = new AtomicInteger();
+        String text = "Component " + CYRILLIC_NAME + " version 1.0 licensed to " + CYRILLIC_NAME + " under MIT";
+        List<String> lines;
+        try (FontRegistry fontRegistry = new FontRegistry(); PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            pdfBoxManager.setRenderingListener(new RenderingListener() {
+                @Override
+                public void glyphsReplaced(int replacedGlyphCount) {
+                    replacedGlyphs.addAndGet(replacedGlyphCount);
+                }
+            });
+            FontFallbackChain fonts = new FontFallbackChain(Arrays.asList(PDType1Font.HELVETICA, pdfBoxManager.loadFont(fontRegistry, FONT_RESOURCE)));
+            lines = StringManager.wrapToCombinedList(fonts, 10, text, 120);
+            assertTrue(lines.size() > 1);
+            for (String line : lines) {
+                assertTrue(StringManager.getStringWidth(fonts, 10, line) <= 120, line);
+            }
+            pdfBoxManager.writeWrappedText(20, 750, 120, text, fonts, 10, Color.BLACK);
+        }
+        assertEquals(0, replacedGlyphs.get());
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            String pageText = new PDFTextStripper().getText(document);
+            for (String line : lines) {
+                assertTrue(pageText.contains(line), line);
+            }
+        }
+    }
+
+    private void assertRun(PDFont expectedFont, String expectedText, FontRun run) {
+        assertSame(expectedFont, run.getFont());
+        assertEquals(expectedText, run.getText());
+    }
+
+}
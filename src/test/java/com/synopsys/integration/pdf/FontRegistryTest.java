@@ -0,0 +1,84 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+public class FontRegistryTest {
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final String TEXT = "Größe of component-42 € 100";
+
+    @Test
+    public void testFontIsParsedOncePerRegistry() throws IOException {
+        try (FontRegistry fontRegistry = new FontRegistry();
+             PDFBoxManager firstManager = new PDFBoxManager(createTempPdf(), new PDDocument());
+             PDFBoxManager secondManager = new PDFBoxManager(createTempPdf(), new PDDocument())) {
+            PDFont firstFont = firstManager.loadFont(fontRegistry, FONT_RESOURCE);
+            PDFont secondFont = secondManager.loadFont(fontRegistry, FONT_RESOURCE);
+
+            assertEquals(1, fontRegistry.size());
+            assertSame(firstFont, firstManager.loadFont(fontRegistry, FONT_RESOURCE));
+            assertNotSame(firstFont, secondFont);
+            assertSame(PDFontMetrics.of(firstFont), PDFontMetrics.of(secondFont));
+
+            try (PDDocument document = new PDDocument(); InputStream fontStream = getClass().getResourceAsStream(FONT_RESOURCE)) {
+                PDFont directlyLoadedFont = PDType0Font.load(document, fontStream);
+                assertEquals(StringManager.getStringWidth(directlyLoadedFont, 10, TEXT), StringManager.getStringWidth(secondFont, 10, TEXT));
+            }
+        }
+    }
+
+    @Test
+    public void testDocumentsEmbedSharedFontConcurrently() throws IOException, InterruptedException, ExecutionException {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (FontRegistry fontRegistry = new FontRegistry()) {
+            List<Future<File>> renderedFiles = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final int documentNumber = i;
+                renderedFiles.add(executorService.submit(() -> {
+                    File outputFile = createTempPdf();
+                    try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+                        PDFont font = pdfBoxManager.loadFont(fontRegistry, FONT_RESOURCE);
+                        pdfBoxManager.writeWrappedText(20, 700, 500, TEXT + " in document " + documentNumber, font, 10, Color.BLACK);
+                    }
+                    return outputFile;
+                }));
+            }
+
+            for (int i = 0; i < renderedFiles.size(); i++) {
+                try (PDDocument document = PDDocument.load(renderedFiles.get(i).get())) {
+                    String text = new PDFTextStripper().getText(document);
+                    assertTrue(text.contains("document " + i), text);
+                    assertTrue(text.contains("Größe"), text);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private File createTempPdf() throws IOException {
+        File outputFile = File.createTempFile("font-registry-test", ".pdf");
+        outputFile.deleteOnExit();
+        return outputFile;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class JarResourceCopierTest {
+    private static final String RESOURCE_DIR = "/com/synopsys/integration/pdf/copier/";
+
+    private final List<Path> temporaryPaths = new ArrayList<>();
+
+    @AfterEach
+    public void deleteTemporaryPaths() throws IOException {
+        for (Path temporaryPath : temporaryPaths) {
+            if (Files.exists(temporaryPath)) {
+                try (Stream<Path> paths = Files.walk(temporaryPath)) {
+                    for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalCopySkipsUnchangedFiles() throws IOException {
+        File destinationDir = createTempDirectory();
+        JarResourceCopier copier = createCopier(Arrays.asList("template.html", "nested/style.css"));
+
+        ResourceCopyResult firstRun = copier.copyIncrementally(RESOURCE_DIR, destinationDir.getAbsolutePath(), 2);
+        assertTrue(firstRun.isSuccess());
+        assertEquals(2, firstRun.getCopiedFiles().size());
+        assertTrue(new File(destinationDir, JarResourceCopier.MANIFEST_FILE_NAME).isFile());
+        assertEquals("report template\n", new String(Files.readAllBytes(new File(destinationDir, "template.html").toPath()), StandardCharsets.UTF_8));
+
+        ResourceCopyResult secondRun = copier.copyIncrementally(RESOURCE_DIR, destinationDir.getAbsolutePath(), 2);
+        assertTrue(secondRun.getCopiedFiles().isEmpty());
+        assertEquals(2, secondRun.getUnchangedFiles().size());
+
+        File modifiedFile = new File(destinationDir, "nested" + File.separator + "style.css");
+        Files.write(modifiedFile.toPath(), "edited".getBytes(StandardCharsets.UTF_8));
+        ResourceCopyResult thirdRun = copier.copyIncrementally(RESOURCE_DIR, destinationDir.getAbsolutePath(), 2);
+        assertEquals(Collections.singletonList(modifiedFile), thirdRun.getCopiedFiles());
+        assertEquals("body { color: #2c3e50; }\n", new String(Files.readAllBytes(modifiedFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIncrementalCopyReportsMissingResources() throws IOException {
+        File destinationDir = createTempDirectory();
+        JarResourceCopier copier = createCopier(Arrays.asList("template.html", "does-not-exist.png"));
+
+        ResourceCopyResult result = copier.copyIncrementally(RESOURCE_DIR, destinationDir.getAbsolutePath(), 4);
+        assertFalse(result.isSuccess());
+        assertEquals(1, result.getCopiedFiles().size());
+        assertEquals(Collections.singletonList("does-not-exist.png"), result.getMissingResources());
+        assertTrue(result.getFailedResources().isEmpty());
+    }
+
+    @Test
+    public void testDefaultFileListComesFromResourceIndex() throws IOException {
+        File destinationDir = createTempDirectory();
+
+        JarResourceCopier copier = new JarResourceCopier(RESOURCE_DIR);
+        assertEquals(Arrays.asList("nested/style.css", "template.html"), copier.findRelativePathFileList());
+
+        ResourceCopyResult result = copier.copyIncrementally(destinationDir.getAbsolutePath(), 2);
+        assertTrue(result.isSuccess());
+        assertEquals(Arrays.asList(new File(destinationDir, "nested" + File.separator + "style.css"), new File(destinationDir, "template.html")), result.getCopiedFiles());
+        assertFalse(new File(destinationDir, ResourceIndex.INDEX_FILE_NAME).exists());
+    }
+
+    @Test
+    public void testDefaultFileListWithoutIndexWalksDirectory() throws IOException, URISyntaxException {
+        File destinationDir = createTempDirectory();
+
+        List<File> copiedFiles = new JarResourceCopier(RESOURCE_DIR + "nested/").copy(destinationDir.getAbsolutePath());
+        assertEquals(Collections.singletonList(new File(destinationDir, "style.css")), copiedFiles);
+    }
+
+    @Test
+    public void testResourceIndexRoundTrip() throws IOException, URISyntaxException {
+        Path resourceDirectory = Paths.get(getClass().getResource(RESOURCE_DIR).toURI());
+        ResourceIndex index = ResourceIndex.create(resourceDirectory);
+        Path indexFile = Files.createTempFile("resource-index", ".txt");
+        temporaryPaths.add(indexFile);
+        index.write(indexFile);
+
+        ResourceIndex readIndex;
+        try (InputStream inputStream = Files.newInputStream(indexFile)) {
+            readIndex = ResourceIndex.read(inputStream);
+        }
+        assertEquals(Arrays.asList("nested/style.css", "template.html"), readIndex.getRelativePaths());
+        assertEquals(16, readIndex.getEntries().get(1).getSize());
+        assertEquals(index.getEntries().get(1).getSha256(), readIndex.getEntries().get(1).getSha256());
+        // the packaged index must stay in sync with the test resources
+        assertArrayEquals(Files.readAllBytes(resourceDirectory.resolve(ResourceIndex.INDEX_FILE_NAME)), Files.readAllBytes(indexFile));
+    }
+
+    private File createTempDirectory() throws IOException {
+        Path temporaryDirectory = Files.createTempDirectory("jar-resource-copier-test");
+        temporaryPaths.add(temporaryDirectory);
+        return temporaryDirectory.toFile();
+    }
+
+    private JarResourceCopier createCopier(List<String> relativePaths) {
+        return new JarResourceCopier() {
+            @Override
+            public List<String> findRelativePathFileList() {
+                return relativePaths;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,417 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+public class PDFBoxManagerTest {
+    private static final String IMAGE_RESOURCE = "severity-icon.png";
+
+    @Test
+    public void testRepeatedImagesAreStoredOnce() throws IOException {
+        File outputFile = createTempPdf();
+        DecodedImageCache decodedImageCache = new DecodedImageCache(4);
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument(), decodedImageCache)) {
+            float y = 750;
+            for (int i = 0; i < 200; i++) {
+                y = pdfBoxManager.drawImage(20, y - 12, 10, 10, IMAGE_RESOURCE).getLowerLeftY();
+            }
+        }
+        assertEquals(1, decodedImageCache.size());
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            Set<Object> imageStreams = new HashSet<>();
+            for (PDPage page : document.getPages()) {
+                for (COSName name : page.getResources().getXObjectNames()) {
+                    imageStreams.add(page.getResources().getXObject(name).getCOSObject());
+                }
+            }
+            assertEquals(1, imageStreams.size());
+        }
+    }
+
+    @Test
+    public void testStreamingModeWritesEveryPage() throws IOException {
+        File outputFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = PDFBoxManager.createStreaming(outputFile, 64 * 1024)) {
+            float y = 750;
+            for (int i = 0; i < 3000; i++) {
+                y = pdfBoxManager.writeText(20, y - 12, "row " + i + " of a very large report", PDType1Font.HELVETICA, 10, Color.BLACK).getLowerLeftY();
+            }
+        }
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            assertTrue(document.getNumberOfPages() > 40);
+        }
+    }
+
+    @Test
+    public void testStreamingModeDoesNotKeepPageContentOnTheHeap() throws IOException {
+        File smallFile = createTempPdf();
+        File largeFile = createTempPdf();
+        long smallRetainedBytes = drawDensePagesAndMeasureRetainedHeap(smallFile, 50);
+        long largeRetainedBytes = drawDensePagesAndMeasureRetainedHeap(largeFile, 500);
+
+        // every page holds about 20 KB of compressed content, a document that kept it on the heap would grow by at least that much per page
+        long contentGrowth = largeFile.length() - smallFile.length();
+        long retainedGrowth = largeRetainedBytes - smallRetainedBytes;
+        assertTrue(retainedGrowth < contentGrowth / 3, String.format("The heap grew by %d bytes for %d bytes of additional page content", retainedGrowth, contentGrowth));
+    }
+
+    @Test
+    public void testConsecutiveLinesShareTextState() throws IOException {
+        File outputFile = createTempPdf();
+        String text = "Consecutive lines that use the same font and color should end up in a single text object with a single font operator and a single color operator.";
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            pdfBoxManager.writeWrappedText(20, 700, 100, text, PDType1Font.HELVETICA, 10, Color.BLACK);
+            pdfBoxManager.writeLink(20, 500, "first link", "https://www.synopsys.com", PDType1Font.HELVETICA, 10);
+            pdfBoxManager.writeLink(20, 480, "second link", "https://www.synopsys.com", PDType1Font.HELVETICA, 10);
+        }
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            Map<String, Integer> operatorCounts = countOperators(document.getPage(0));
+            assertEquals(Integer.valueOf(1), operatorCounts.get("BT"));
+            assertEquals(Integer.valueOf(1), operatorCounts.get("Tf"));
+            assertEquals(Integer.valueOf(2), operatorCounts.get("sc"));
+            assertTrue(new PDFTextStripper().getText(document).contains("second link"));
+        }
+    }
+
+    @Test
+    public void testMeasuringMatchesRendering() throws IOException {
+        File outputFile = createTempPdf();
+        List<PDRectangle> measured;
+        int measuredPageCount;
+        try (PDFBoxManager measuringManager = PDFBoxManager.createMeasuring()) {
+            measured = drawRows(measuringManager);
+            measuredPageCount = measuringManager.getPageCount();
+        }
+        assertTrue(measuredPageCount > 1);
+
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            List<PDRectangle> rendered = drawRows(pdfBoxManager);
+            assertEquals(measuredPageCount, pdfBoxManager.getPageCount());
+            assertEquals(measured.size(), rendered.size());
+            for (int i = 0; i < measured.size(); i++) {
+                assertEquals(measured.get(i).toString(), rendered.get(i).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testRenderingMetricsAreAggregated() throws IOException {
+        File outputFile = createTempPdf();
+        AggregatingRenderingListener renderingListener = new AggregatingRenderingListener();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            pdfBoxManager.setRenderingListener(renderingListener);
+            drawRows(pdfBoxManager);
+            pdfBoxManager.writeText(20, 700, "\u4e2d\u6587", PDType1Font.HELVETICA, 10, Color.BLACK);
+            pdfBoxManager.drawRectangle(20, 600, 10, 10, Color.RED);
+        }
+
+        RenderingMetricsSnapshot snapshot = renderingListener.snapshot();
+        assertEquals(60, snapshot.getOperationCount(RenderingOperation.WRAPPED_TEXT));
+        assertEquals(60, snapshot.getOperationCount(RenderingOperation.LINK));
+        assertEquals(60, snapshot.getOperationCount(RenderingOperation.IMAGE));
+        assertEquals(1, snapshot.getOperationCount(RenderingOperation.RECTANGLE));
+        assertTrue(snapshot.getOperationCount(RenderingOperation.TEXT) > 120);
+        assertTrue(snapshot.getOperationNanos(RenderingOperation.TEXT) > 0);
+        assertTrue(snapshot.getPageSwitches() > 0);
+        assertEquals(2, snapshot.getReplacedGlyphs());
+        assertEquals(1, snapshot.getSaves());
+        assertEquals(outputFile.length(), snapshot.getSavedBytes());
+        assertEquals(Long.valueOf(1), snapshot.toMap().get("save.count"));
+    }
+
+    @Test
+    public void testPageTemplateIsStampedOnEveryPage() throws IOException {
+        File templateFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(templateFile, new PDDocument())) {
+            PageTextSlot pageNumber = new PageTextSlot(540, 20, PDType1Font.HELVETICA, 8, Color.GRAY, page -> "Page " + page);
+            pdfBoxManager.setPageTemplate(this::drawPageChrome, Collections.singletonList(pageNumber));
+            drawLines(pdfBoxManager);
+            assertTrue(pdfBoxManager.getPageCount() > 10);
+        }
+
+        File repeatedFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(repeatedFile, new PDDocument())) {
+            pdfBoxManager.setRenderingListener(new RenderingListener() {
+                @Override
+                public void pageSwitched(final int pageCount) {
+                    try {
+                        drawPageChrome(pdfBoxManager);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            drawPageChrome(pdfBoxManager);
+            drawLines(pdfBoxManager);
+        }
+        assertTrue(templateFile.length() < repeatedFile.length(), templateFile.length() + " >= " + repeatedFile.length());
+
+        try (PDDocument document = PDDocument.load(templateFile)) {
+            Set<Object> forms = new HashSet<>();
+            for (int i = 0; i < document.getNumberOfPages(); i++) {
+                PDPage page = document.getPage(i);
+                assertEquals(1, countOperators(page).get("Do") - countImages(page));
+                for (COSName name : page.getResources().getXObjectNames()) {
+                    if (page.getResources().getXObject(name) instanceof PDFormXObject) {
+                        forms.add(page.getResources().getXObject(name).getCOSObject());
+                    }
+                }
+
+                PDFTextStripper textStripper = new PDFTextStripper();
+                textStripper.setStartPage(i + 1);
+                textStripper.setEndPage(i + 1);
+                String text = textStripper.getText(document);
+                assertTrue(text.contains("Black Duck Risk Report"), text);
+                assertTrue(text.contains("Page " + (i + 1)), text);
+            }
+            assertEquals(1, forms.size());
+        }
+    }
+
+    @Test
+    public void testFailedPageTemplateLeavesNoStaleTextState() throws IOException {
+        File pdfFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(pdfFile, new PDDocument())) {
+            IOException failure = assertThrows(IOException.class, () -> pdfBoxManager.setPageTemplate(manager -> {
+                manager.writeText(40, 772, "Black Duck Risk Report", PDType1Font.HELVETICA_BOLD, 12, Color.WHITE);
+                throw new IOException("template failed");
+            }, Collections.emptyList()));
+            assertEquals("template failed", failure.getMessage());
+            pdfBoxManager.writeText(40, 700, "Black Duck Risk Report", PDType1Font.HELVETICA_BOLD, 12, Color.WHITE);
+        }
+
+        try (PDDocument document = PDDocument.load(pdfFile)) {
+            Map<String, Integer> operators = countOperators(document.getPage(0));
+            assertEquals(1, operators.get("BT").intValue());
+            assertEquals(1, operators.get("ET").intValue());
+            assertEquals(1, operators.get("Tf").intValue());
+            assertEquals(1, operators.get("sc").intValue());
+            assertEquals(null, operators.get("Do"));
+            assertTrue(new PDFTextStripper().getText(document).contains("Black Duck Risk Report"));
+        }
+    }
+
+    @Test
+    public void testSavingToStreamAndChannelLeavesThemOpen() throws IOException {
+        File outputFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            drawLines(pdfBoxManager);
+        }
+
+        AggregatingRenderingListener renderingListener = new AggregatingRenderingListener();
+        ByteArrayOutputStream streamOutput = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new IllegalStateException("the caller owns the stream");
+            }
+        };
+        try (PDFBoxManager pdfBoxManager = PDFBoxManager.createForOutputStream(streamOutput, new PDDocument(), null)) {
+            pdfBoxManager.setRenderingListener(renderingListener);
+            drawLines(pdfBoxManager);
+        }
+        assertEquals(streamOutput.size(), renderingListener.snapshot().getSavedBytes());
+
+        ByteArrayOutputStream channelOutput = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(channelOutput);
+        try (PDFBoxManager pdfBoxManager = PDFBoxManager.createForChannel(channel, new PDDocument(), null)) {
+            drawLines(pdfBoxManager);
+        }
+        assertTrue(channel.isOpen());
+
+        for (byte[] savedBytes : Arrays.asList(streamOutput.toByteArray(), channelOutput.toByteArray())) {
+            try (PDDocument expected = PDDocument.load(outputFile); PDDocument document = PDDocument.load(savedBytes)) {
+                assertEquals(expected.getNumberOfPages(), document.getNumberOfPages());
+                assertEquals(new PDFTextStripper().getText(expected), new PDFTextStripper().getText(document));
+            }
+        }
+    }
+
+    @Test
+    public void testAppendingKeepsTheExistingBytesAndAddsPages() throws IOException {
+        File outputFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            drawLines(pdfBoxManager);
+        }
+        byte[] originalBytes = Files.readAllBytes(outputFile.toPath());
+        int originalPageCount;
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            originalPageCount = document.getNumberOfPages();
+        }
+
+        try (FontRegistry fontRegistry = new FontRegistry(); PDFBoxManager pdfBoxManager = PDFBoxManager.openForAppend(outputFile)) {
+            PDFont font = pdfBoxManager.loadFont(fontRegistry, "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf");
+            pdfBoxManager.writeText(20, 740, "Delta for " + LocalDate.of(2021, 3, 1), font, 12, Color.BLACK);
+            pdfBoxManager.writeLink(20, 720, "new vulnerability", "https://www.synopsys.com", PDType1Font.HELVETICA, 10);
+            pdfBoxManager.drawImage(20, 700, 10, 10, IMAGE_RESOURCE);
+        }
+
+        byte[] appendedBytes = Files.readAllBytes(outputFile.toPath());
+        assertTrue(appendedBytes.length > originalBytes.length);
+        // an incremental update only adds to the end of the file
+        assertArrayEquals(originalBytes, Arrays.copyOf(appendedBytes, originalBytes.length));
+        assertTrue(appendedBytes.length - originalBytes.length < originalBytes.length, "appended " + (appendedBytes.length - originalBytes.length) + " bytes to " + originalBytes.length);
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            assertEquals(originalPageCount + 1, document.getNumberOfPages());
+            PDFTextStripper textStripper = new PDFTextStripper();
+            textStripper.setStartPage(originalPageCount + 1);
+            String newPageText = textStripper.getText(document);
+            assertTrue(newPageText.contains("Delta for 2021-03-01"), newPageText);
+            assertTrue(newPageText.contains("new vulnerability"), newPageText);
+            assertEquals(1, document.getPage(originalPageCount).getAnnotations().size());
+            assertEquals(1, countImages(document.getPage(originalPageCount)));
+        }
+    }
+
+    @Test
+    public void testLinksToTheSameUrlShareOneAction() throws IOException {
+        File outputFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            float y = 740;
+            for (int i = 0; i < 500; i++) {
+                String url = "https://kb.blackducksoftware.com/vulnerabilities/" + i % 2;
+                y = pdfBoxManager.writeLink(20, y - 12, "BDSA-2021-" + i, url, PDType1Font.HELVETICA, 10).getLowerLeftY();
+            }
+        }
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            Set<Object> actions = new HashSet<>();
+            int linkCount = 0;
+            for (PDPage page : document.getPages()) {
+                for (PDAnnotation annotation : page.getAnnotations()) {
+                    assertTrue(annotation.getRectangle().getLowerLeftY() >= 0);
+                    actions.add(((PDAnnotationLink) annotation).getAction().getCOSObject());
+                    linkCount++;
+                }
+            }
+            assertEquals(500, linkCount);
+            assertEquals(2, actions.size());
+            assertTrue(new PDFTextStripper().getText(document).contains("BDSA-2021-499"));
+        }
+    }
+
+    private void drawLines(PDFBoxManager pdfBoxManager) throws IOException {
+        float y = 740;
+        for (int i = 0; i < 1000; i++) {
+            y = pdfBoxManager.writeText(20, y - 12, "row " + i, PDType1Font.HELVETICA, 10, Color.BLACK).getLowerLeftY();
+        }
+    }
+
+    private void drawPageChrome(PDFBoxManager pdfBoxManager) throws IOException {
+        pdfBoxManager.drawRectangle(0, 762, 612, 30, Color.decode(PDFBoxManager.BLUE_GRAY));
+        pdfBoxManager.drawImage(20, 770, 14, 14, IMAGE_RESOURCE);
+        pdfBoxManager.writeText(40, 772, "Black Duck Risk Report", PDType1Font.HELVETICA_BOLD, 12, Color.WHITE);
+        pdfBoxManager.writeText(20, 30, "Confidential - generated for internal review only", PDType1Font.HELVETICA, 7, Color.GRAY);
+    }
+
+    private int countImages(PDPage page) throws IOException {
+        int imageCount = 0;
+        PDFStreamParser parser = new PDFStreamParser(page);
+        parser.parse();
+        List<Object> tokens = parser.getTokens();
+        for (int i = 1; i < tokens.size(); i++) {
+            if (tokens.get(i) instanceof Operator && "Do".equals(((Operator) tokens.get(i)).getName())) {
+                if (page.getResources().getXObject((COSName) tokens.get(i - 1)) instanceof PDImageXObject) {
+                    imageCount++;
+                }
+            }
+        }
+        return imageCount;
+    }
+
+    private List<PDRectangle> drawRows(PDFBoxManager pdfBoxManager) throws IOException {
+        List<PDRectangle> rectangles = new ArrayList<>();
+        float y = 750;
+        for (int i = 0; i < 60; i++) {
+            PDRectangle text = pdfBoxManager.writeWrappedText(20, y, 150, "component " + i + " with a name long enough to need wrapping", PDType1Font.HELVETICA, 10, Color.BLACK);
+            PDRectangle link = pdfBoxManager.writeLink(200, text.getUpperRightY(), "details", "https://www.synopsys.com", PDType1Font.HELVETICA, 10);
+            PDRectangle image = pdfBoxManager.drawImage(300, link.getLowerLeftY(), 10, 10, IMAGE_RESOURCE);
+            rectangles.add(text);
+            rectangles.add(link);
+            rectangles.add(image);
+            y = text.getLowerLeftY() - 12;
+        }
+        return rectangles;
+    }
+
+    private Map<String, Integer> countOperators(PDPage page) throws IOException {
+        Map<String, Integer> operatorCounts = new HashMap<>();
+        PDFStreamParser parser = new PDFStreamParser(page);
+        parser.parse();
+        for (Object token : parser.getTokens()) {
+            if (token instanceof Operator) {
+                operatorCounts.merge(((Operator) token).getName(), 1, Integer::sum);
+            }
+        }
+        return operatorCounts;
+    }
+
+    private long drawDensePagesAndMeasureRetainedHeap(File outputFile, int pageCount) throws IOException {
+        Random random = new Random(1L);
+        try (PDFBoxManager pdfBoxManager = PDFBoxManager.createStreaming(outputFile, 64 * 1024)) {
+            float y = 750;
+            while (pdfBoxManager.getPageCount() < pageCount) {
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < 8; i++) {
+                    line.append(Long.toHexString(random.nextLong()));
+                }
+                y = pdfBoxManager.writeText(20, y - 3, line.toString(), PDType1Font.HELVETICA, 2, Color.BLACK).getLowerLeftY();
+            }
+            return measureRetainedHeap();
+        }
+    }
+
+    private long measureRetainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private File createTempPdf() throws IOException {
+        File outputFile = File.createTempFile("pdf-box-manager-test", ".pdf");
+        outputFile.deleteOnExit();
+        return outputFile;
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Renders generated workloads through {@link PDFBoxManager} and compares render time, peak heap, page count and output size with the baselines in performance-baselines.properties. Page counts must match exactly and
+ * output sizes closely, while time and heap get the tolerance factors of the baseline file, because they depend on the build machine.
+ * <p>
+ * Run with -Dperformance.baselines.output=path/to/file.properties to write the measured values as new baselines instead of comparing them.
+ */
+public class PerformanceRegressionTest {
+    private static final String BASELINES_RESOURCE = "performance-baselines.properties";
+    private static final String BASELINES_OUTPUT_PROPERTY = "performance.baselines.output";
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final int TIMED_RUNS = 3;
+    private static final long RENDER_MILLIS_SLACK = 250;
+    private static final long PEAK_HEAP_SLACK_BYTES = 64L * 1024 * 1024;
+
+    private static Properties baselines;
+    private static Properties measuredBaselines;
+    private static FontRegistry fontRegistry;
+
+    @BeforeAll
+    public static void loadBaselines() throws IOException {
+        baselines = new Properties();
+        try (InputStream baselinesStream = PerformanceRegressionTest.class.getResourceAsStream(BASELINES_RESOURCE)) {
+            baselines.load(baselinesStream);
+        }
+        measuredBaselines = new Properties();
+        fontRegistry = new FontRegistry();
+    }
+
+    @AfterAll
+    public static void writeMeasuredBaselines() throws IOException {
+        fontRegistry.close();
+        String outputPath = System.getProperty(BASELINES_OUTPUT_PROPERTY);
+        if (null != outputPath) {
+            for (String tolerance : Arrays.asList("renderMillisTolerance", "peakHeapTolerance", "outputBytesTolerance")) {
+                measuredBaselines.setProperty(tolerance, baselines.getProperty(tolerance));
+            }
+            try (OutputStream baselinesStream = new FileOutputStream(outputPath)) {
+                measuredBaselines.store(baselinesStream, "Baselines for PerformanceRegressionTest");
+            }
+        }
+    }
+
+    static Stream<Workload> provideWorkloads() {
+        return Stream.of(
+            new Workload("component-table", new ReportWorkloadGenerator(1L, 5000, 60, 0.0, 0.3, 0.2)),
+            new Workload("unicode-mix", new ReportWorkloadGenerator(2L, 2000, 120, 0.3, 0.3, 0.2)),
+            new Workload("long-descriptions", new ReportWorkloadGenerator(3L, 300, 600, 0.05, 1.0, 1.0))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideWorkloads")
+    public void testRenderingStaysWithinBaseline(Workload workload) throws IOException {
+        List<ReportWorkloadGenerator.Row> rows = workload.generator.generate();
+        File outputFile = File.createTempFile("performance-" + workload.name, ".pdf");
+        outputFile.deleteOnExit();
+
+        // the first run warms up the code paths and font metrics, the peak heap is taken from a separate run
+        render(rows, outputFile);
+        long renderMillis = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long startNanos = System.nanoTime();
+            render(rows, outputFile);
+            renderMillis = Math.min(renderMillis, (System.nanoTime() - startNanos) / 1000000);
+        }
+        long peakHeapBytes = measurePeakHeap(rows, outputFile);
+        int pageCount;
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            pageCount = document.getNumberOfPages();
+        }
+        long outputBytes = outputFile.length();
+
+        measuredBaselines.setProperty(workload.name + ".pageCount", String.valueOf(pageCount));
+        measuredBaselines.setProperty(workload.name + ".outputBytes", String.valueOf(outputBytes));
+        measuredBaselines.setProperty(workload.name + ".renderMillis", String.valueOf(renderMillis));
+        measuredBaselines.setProperty(workload.name + ".peakHeapBytes", String.valueOf(peakHeapBytes));
+        if (null != System.getProperty(BASELINES_OUTPUT_PROPERTY)) {
+            return;
+        }
+
+        assertEquals(getBaseline(workload, "pageCount"), pageCount, workload.name + " page count");
+        long baselineOutputBytes = getBaseline(workload, "outputBytes");
+        assertTrue(Math.abs(outputBytes - baselineOutputBytes) <= baselineOutputBytes * getTolerance("outputBytesTolerance"),
+            String.format("%s output is %d bytes, the baseline is %d bytes", workload.name, outputBytes, baselineOutputBytes));
+        long baselineRenderMillis = getBaseline(workload, "renderMillis");
+        assertTrue(renderMillis <= baselineRenderMillis * getTolerance("renderMillisTolerance") + RENDER_MILLIS_SLACK,
+            String.format("%s took %d ms to render, the baseline is %d ms", workload.name, renderMillis, baselineRenderMillis));
+        long baselinePeakHeapBytes = getBaseline(workload, "peakHeapBytes");
+        assertTrue(peakHeapBytes <= baselinePeakHeapBytes * getTolerance("peakHeapTolerance") + PEAK_HEAP_SLACK_BYTES,
+            String.format("%s peaked at %d heap bytes, the baseline is %d bytes", workload.name, peakHeapBytes, baselinePeakHeapBytes));
+    }
+
+    private void render(List<ReportWorkloadGenerator.Row> rows, File outputFile) throws IOException {
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(outputFile, new PDDocument())) {
+            FontFallbackChain fonts = new FontFallbackChain(Arrays.asList(PDType1Font.HELVETICA, pdfBoxManager.loadFont(fontRegistry, FONT_RESOURCE)));
+            ReportWorkloadGenerator.render(pdfBoxManager, fonts, rows);
+        }
+    }
+
+    private long measurePeakHeap(List<ReportWorkloadGenerator.Row> rows, File outputFile) throws IOException {
+        List<MemoryPoolMXBean> memoryPools = ManagementFactory.getMemoryPoolMXBeans();
+        System.gc();
+        for (MemoryPoolMXBean memoryPool : memoryPools) {
+            memoryPool.resetPeakUsage();
+        }
+        render(rows, outputFile);
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean memoryPool : memoryPools) {
+            if (MemoryType.HEAP == memoryPool.getType()) {
+                peakHeapBytes += memoryPool.getPeakUsage().getUsed();
+            }
+        }
+        return peakHeapBytes;
+    }
+
+    private long getBaseline(Workload workload, String metric) {
+        String baseline = baselines.getProperty(workload.name + "." + metric);
+        assertTrue(null != baseline, "No baseline for " + workload.name + "." + metric + ", record one with -D" + BASELINES_OUTPUT_PROPERTY);
+        return Long.parseLong(baseline);
+    }
+
+    private double getTolerance(String tolerance) {
+        return Double.parseDouble(baselines.getProperty(tolerance));
+    }
+
+    private static class Workload {
+        private final String name;
+        private final ReportWorkloadGenerator generator;
+
+        public Workload(String name, ReportWorkloadGenerator generator) {
+            this.name = name;
+            this.generator = generator;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReportGenerationExecutorTest {
+    private static final long JOB_MEMORY_BYTES = 1024 * 1024;
+
+    private File outputDirectory;
+
+    @BeforeEach
+    public void createOutputDirectory() throws IOException {
+        outputDirectory = Files.createTempDirectory("report-generation-test").toFile();
+    }
+
+    @AfterEach
+    public void deleteOutputDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDirectory.toPath())) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testSyntheticBatchStaysWithinMemoryBudget() throws IOException, InterruptedException, ExecutionException {
+        AtomicInteger runningJobs = new AtomicInteger();
+        AtomicInteger maximumRunningJobs = new AtomicInteger();
+
+        List<Future<ReportResult>> futures = new ArrayList<>();
+        try (ReportGenerationExecutor executor = new ReportGenerationExecutor(4, 2 * JOB_MEMORY_BYTES, 8)) {
+            for (int i = 0; i < 40; i++) {
+                int rowCount = 50 + i * 10;
+                ReportContent content = pdfBoxManager -> {
+                    maximumRunningJobs.accumulateAndGet(runningJobs.incrementAndGet(), Math::max);
+                    try {
+                        drawRows(pdfBoxManager, rowCount);
+                    } finally {
+                        runningJobs.decrementAndGet();
+                    }
+                };
+                futures.add(executor.submit(new ReportJob("report-" + i, new File(outputDirectory, "report-" + i + ".pdf"), JOB_MEMORY_BYTES, content)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                ReportResult result = futures.get(i).get();
+                assertEquals("report-" + i, result.getName());
+                assertTrue(result.getRenderNanos() > 0);
+                assertTrue(result.getSaveNanos() > 0);
+                assertEquals(result.getOutputFile().length(), result.getSavedBytes());
+                try (PDDocument document = PDDocument.load(result.getOutputFile())) {
+                    assertEquals(result.getPageCount(), document.getNumberOfPages());
+                }
+            }
+        }
+        assertTrue(maximumRunningJobs.get() <= 2, "jobs running at once: " + maximumRunningJobs.get());
+    }
+
+    @Test
+    public void testCancelledJobStopsAndReleasesItsBudget() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        File cancelledFile = new File(outputDirectory, "cancelled.pdf");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        try (ReportGenerationExecutor executor = new ReportGenerationExecutor(2, JOB_MEMORY_BYTES, 4)) {
+            Future<ReportResult> endlessReport = executor.submit(new ReportJob("endless", cancelledFile, JOB_MEMORY_BYTES, pdfBoxManager -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        pdfBoxManager.switchPage(10);
+                    }
+                } finally {
+                    stopped.countDown();
+                }
+            }));
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            assertTrue(endlessReport.cancel(true));
+            assertThrows(CancellationException.class, endlessReport::get);
+            assertTrue(stopped.await(30, TimeUnit.SECONDS));
+
+            // the next job needs the whole budget, so it only runs once the cancelled job gave its share back
+            Future<ReportResult> nextReport = executor.submit(new ReportJob("next", new File(outputDirectory, "next.pdf"), JOB_MEMORY_BYTES, pdfBoxManager -> drawRows(pdfBoxManager, 10)));
+            assertEquals(1, nextReport.get(30, TimeUnit.SECONDS).getPageCount());
+        }
+        assertFalse(cancelledFile.exists());
+    }
+
+    @Test
+    public void testJobsUsingTheSameStandardFontDoNotBlockEachOther() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        // measuring resolves the glyphs and widths once, the only font calls that are locked outside of rendering
+        try (PDFBoxManager measuringManager = PDFBoxManager.createMeasuring()) {
+            drawRows(measuringManager, 10);
+        }
+        CyclicBarrier bothRendering = new CyclicBarrier(2);
+        ReportContent content = pdfBoxManager -> {
+            drawRows(pdfBoxManager, 5);
+            try {
+                bothRendering.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IOException(e);
+            }
+            drawRows(pdfBoxManager, 10);
+        };
+
+        try (ReportGenerationExecutor executor = new ReportGenerationExecutor(2, 2 * JOB_MEMORY_BYTES, 4)) {
+            // Helvetica is one instance for the whole JVM, a job that locked it would wait for this thread
+            synchronized (PDType1Font.HELVETICA) {
+                Future<ReportResult> firstReport = executor.submit(new ReportJob("first", new File(outputDirectory, "first.pdf"), JOB_MEMORY_BYTES, content));
+                Future<ReportResult> secondReport = executor.submit(new ReportJob("second", new File(outputDirectory, "second.pdf"), JOB_MEMORY_BYTES, content));
+                assertEquals(1, firstReport.get(30, TimeUnit.SECONDS).getPageCount());
+                assertEquals(1, secondReport.get(30, TimeUnit.SECONDS).getPageCount());
+            }
+        }
+    }
+
+    private void drawRows(PDFBoxManager pdfBoxManager, int rowCount) throws IOException {
+        float y = 750;
+        for (int i = 0; i < rowCount; i++) {
+            y = pdfBoxManager.writeWrappedText(20, y - 12, 200, "component " + i + " with a name long enough to need wrapping", PDType1Font.HELVETICA, 10, Color.BLACK).getLowerLeftY();
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.synopsys.integration.pdf;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * Generates large, deterministic report datasets that look like bill of materials reports: component names, licenses, file paths and descriptions whose lengths follow a long tailed distribution, a configurable share
+ * of non Latin text, severity icons and links. The same seed and settings always produce the same rows.
+ */
+public class ReportWorkloadGenerator {
+    public static final String IMAGE_RESOURCE = "severity-icon.png";
+
+    private static final String[] GROUPS = { "org.apache.commons", "com.fasterxml.jackson.core", "io.netty", "org.springframework.boot", "com.google.guava", "org.slf4j", "@angular", "lodash" };
+    private static final String[] ARTIFACTS = { "commons-lang3", "jackson-databind", "netty-handler", "spring-boot-starter-web", "guava", "slf4j-api", "compiler-cli", "lodash.merge" };
+    private static final String[] LICENSES = { "Apache License 2.0", "MIT License", "BSD 3-clause \"New\" or \"Revised\" License", "GNU Lesser General Public License v2.1 or later", "Eclipse Public License 2.0" };
+    private static final String[] WORDS = { "component", "vulnerability", "remediation", "dependency", "transitive", "license", "policy", "violation", "upgrade", "severity", "exploit", "version", "the", "of", "in",
+        "reallyreallylonglongidentifierwithoutanybreaks" };
+    private static final String[] UNICODE_WORDS = { "\u00dcberpr\u00fcfung", "s\u00e9curit\u00e9", "\u041a\u043e\u043c\u043f\u043e\u043d\u0435\u043d\u0442", "\u0443\u044f\u0437\u0432\u0438\u043c\u043e\u0441\u0442\u044c", "\u0411\u0438\u0431\u043b\u0438\u043e\u0442\u0435\u043a\u0430", "\u4e2d\u6587", "\u65e5\u672c\u8a9e" };
+
+    private final long seed;
+    private final int rowCount;
+    private final int meanTextLength;
+    private final double unicodeRatio;
+    private final double imageRatio;
+    private final double linkRatio;
+
+    /**
+     * @param meanTextLength the mean length of row descriptions, which follow an exponential distribution so a few rows are many times longer.
+     * @param unicodeRatio   the share of description words taken from Latin-1, Cyrillic and CJK text.
+     */
+    public ReportWorkloadGenerator(long seed, int rowCount, int meanTextLength, double unicodeRatio, double imageRatio, double linkRatio) {
+        this.seed = seed;
+        this.rowCount = rowCount;
+        this.meanTextLength = meanTextLength;
+        this.unicodeRatio = unicodeRatio;
+        this.imageRatio = imageRatio;
+        this.linkRatio = linkRatio;
+    }
+
+    public List<Row> generate() {
+        Random random = new Random(seed);
+        List<Row> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String group = GROUPS[random.nextInt(GROUPS.length)];
+            String componentName = group + ":" + ARTIFACTS[random.nextInt(ARTIFACTS.length)] + ":" + random.nextInt(10) + "." + random.nextInt(30) + "." + random.nextInt(100);
+            String license = LICENSES[random.nextInt(LICENSES.length)];
+            String path = "/usr/local/lib/node_modules/" + group + "/dist/module-" + random.nextInt(1000) + "/index.js";
+            int descriptionLength = (int) Math.min(meanTextLength * 20L, Math.round(-meanTextLength * Math.log(1 - random.nextDouble())));
+            String description = createDescription(random, descriptionLength);
+            boolean hasImage = random.nextDouble() < imageRatio;
+            String linkUrl = random.nextDouble() < linkRatio ? "https://www.synopsys.com/components/" + i : null;
+            rows.add(new Row(componentName, license, path, description, hasImage, linkUrl));
+        }
+        return rows;
+    }
+
+    /**
+     * Renders the rows the way the report templates lay out a component table.
+     */
+    public static void render(PDFBoxManager pdfBoxManager, FontFallbackChain fonts, List<Row> rows) throws IOException {
+        float y = 750;
+        for (Row row : rows) {
+            PDRectangle name = pdfBoxManager.writeWrappedText(40, y, 160, row.getComponentName(), PDType1Font.HELVETICA_BOLD, 9, Color.BLACK);
+            if (row.hasImage()) {
+                pdfBoxManager.drawImage(20, name.getUpperRightY() - 9, 10, 10, IMAGE_RESOURCE);
+            }
+            pdfBoxManager.writeWrappedText(210, name.getUpperRightY(), 120, row.getLicense(), PDType1Font.HELVETICA, 8, Color.DARK_GRAY);
+            PDRectangle description = pdfBoxManager.writeWrappedText(340, name.getUpperRightY(), 240, row.getDescription(), fonts, 8, Color.BLACK);
+            float lowestY = Math.min(name.getLowerLeftY(), description.getLowerLeftY());
+            if (null != row.getLinkUrl()) {
+                lowestY = pdfBoxManager.writeWrappedLink(40, lowestY - 10, 300, row.getPath(), row.getLinkUrl(), PDType1Font.HELVETICA, 7).getLowerLeftY();
+            }
+            y = lowestY - 12;
+        }
+    }
+
+    private String createDescription(Random random, int length) {
+        StringBuilder description = new StringBuilder(length + 50);
+        while (description.length() < length) {
+            if (random.nextDouble() < unicodeRatio) {
+                description.append(UNICODE_WORDS[random.nextInt(UNICODE_WORDS.length)]);
+            } else {
+                description.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            description.append(' ');
+        }
+        return description.toString().trim();
+    }
+
+    public static class Row {
+        private final String componentName;
+        private final String license;
+        private final String path;
+        private final String description;
+        private final boolean hasImage;
+        private final String linkUrl;
+
+        public Row(String componentName, String license, String path, String description, boolean hasImage, String linkUrl) {
+            this.componentName = componentName;
+            this.license = license;
+            this.path = path;
+            this.description = description;
+            this.hasImage = hasImage;
+            this.linkUrl = linkUrl;
+        }
+
+        public String getComponentName() {
+            return componentName;
+        }
+
+        public String getLicense() {
+            return license;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean hasImage() {
+            return hasImage;
+        }
+
+        public String getLinkUrl() {
+            return linkUrl;
+        }
+
+    }
+
+}
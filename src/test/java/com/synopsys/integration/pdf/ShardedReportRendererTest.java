@@ -0,0 +1,147 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDCIDFont;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+public class ShardedReportRendererTest {
+    private static final String IMAGE_RESOURCE = "severity-icon.png";
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final int SECTION_COUNT = 8;
+    private static final int SECTION_ROWS = 120;
+
+    @Test
+    public void testSectionsAreMergedInOrderWithSharedResources() throws IOException {
+        File outputFile = File.createTempFile("sharded-report", ".pdf");
+        outputFile.deleteOnExit();
+
+        List<ReportContent> sections = new ArrayList<>();
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            String sectionName = "Section " + i;
+            sections.add(pdfBoxManager -> drawSection(pdfBoxManager, sectionName));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        int pageCount;
+        try (FontRegistry fontRegistry = new FontRegistry()) {
+            List<ReportContent> fontSections = new ArrayList<>();
+            for (ReportContent section : sections) {
+                fontSections.add(pdfBoxManager -> {
+                    PDFont font = pdfBoxManager.loadFont(fontRegistry, FONT_RESOURCE);
+                    pdfBoxManager.writeText(20, 20, "rendered with " + font.getName(), font, 8, Color.GRAY);
+                    section.render(pdfBoxManager);
+                });
+            }
+            ReportContent firstSection = fontSections.get(0);
+            fontSections.set(0, pdfBoxManager -> {
+                PDFont shardFont = PDType0Font.load(pdfBoxManager.document, getClass().getResourceAsStream(FONT_RESOURCE));
+                pdfBoxManager.writeText(20, 30, "shard font", shardFont, 8, Color.GRAY);
+                firstSection.render(pdfBoxManager);
+            });
+            pageCount = new ShardedReportRenderer(executorService, new DecodedImageCache(4)).render(outputFile, fontSections);
+        } finally {
+            executorService.shutdown();
+        }
+
+        try (PDDocument document = PDDocument.load(outputFile)) {
+            assertEquals(pageCount, document.getNumberOfPages());
+            assertTrue(pageCount > SECTION_COUNT, "pages: " + pageCount);
+
+            Set<Object> xObjects = new HashSet<>();
+            Set<Object> trueTypeFonts = new HashSet<>();
+            int linkCount = 0;
+            for (PDPage page : document.getPages()) {
+                for (COSName name : page.getResources().getXObjectNames()) {
+                    xObjects.add(page.getResources().getXObject(name).getCOSObject());
+                }
+                for (COSName name : page.getResources().getFontNames()) {
+                    PDFont font = page.getResources().getFont(name);
+                    if (font.getName().contains("LiberationSans")) {
+                        trueTypeFonts.add(font.getCOSObject());
+                        PDCIDFont descendantFont = ((PDType0Font) font).getDescendantFont();
+                        assertNotNull(descendantFont.getFontDescriptor().getFontFile2(), font.getName() + " is not embedded");
+                    }
+                }
+                for (PDAnnotation annotation : page.getAnnotations()) {
+                    if (annotation instanceof PDAnnotationLink) {
+                        linkCount++;
+                    }
+                }
+            }
+            assertEquals(1, xObjects.size());
+            // the registry font shared by every shard and the font the first shard loaded into its own document
+            assertEquals(2, trueTypeFonts.size());
+            assertEquals(SECTION_COUNT * SECTION_ROWS / 10, linkCount);
+
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("rendered with"), text);
+            assertTrue(text.contains("shard font"), text);
+            int previousIndex = -1;
+            for (int i = 0; i < SECTION_COUNT; i++) {
+                int index = text.indexOf("Section " + i + " heading");
+                assertTrue(index > previousIndex, "Section " + i + " is out of order");
+                previousIndex = index;
+            }
+        }
+    }
+
+    @Test
+    public void testFailedSectionFailsTheReport() throws IOException {
+        File outputFile = File.createTempFile("sharded-report", ".pdf");
+        outputFile.deleteOnExit();
+
+        List<ReportContent> sections = new ArrayList<>();
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            String sectionName = "Section " + i;
+            sections.add(pdfBoxManager -> drawSection(pdfBoxManager, sectionName));
+        }
+        sections.set(3, pdfBoxManager -> {
+            throw new IOException("section data missing");
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            IOException e = assertThrows(IOException.class, () -> new ShardedReportRenderer(executorService, null).render(outputFile, sections));
+            assertEquals("section data missing", e.getMessage());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void drawSection(PDFBoxManager pdfBoxManager, String sectionName) throws IOException {
+        float y = pdfBoxManager.writeText(20, 750, sectionName + " heading", PDType1Font.HELVETICA_BOLD, 14, Color.BLACK).getLowerLeftY();
+        for (int i = 0; i < SECTION_ROWS; i++) {
+            y -= 14;
+            pdfBoxManager.drawImage(20, y, 10, 10, IMAGE_RESOURCE);
+            if (i % 10 == 0) {
+                y = pdfBoxManager.writeLink(40, y, sectionName + " row " + i, "https://example.com/" + i, PDType1Font.HELVETICA, 10).getLowerLeftY();
+            } else {
+                y = pdfBoxManager.writeText(40, y, sectionName + " row " + i, PDType1Font.HELVETICA, 10, Color.BLACK).getLowerLeftY();
+            }
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.synopsys.integration.pdf;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,6 +14,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
@@ -21,6 +25,31 @@ public class StringManagerTest {
         assertTrue(0 < StringManager.getStringWidth(PDType1Font.HELVETICA, 10.0f, "some text"));
     }
 
+    @Test
+    public void testReplaceUnsupportedCharacters() throws IOException {
+        String text = "caf\u00e9 \u4e2d\u6587 \ud83d\ude00 plain";
+        String expected = "caf\u00e9 ?? ? plain";
+        assertEquals(expected, StringManager.replaceUnsupportedCharacters(text, PDType1Font.HELVETICA));
+        assertEquals(expected, StringManager.replaceUnsupportedCharacters(text, Arrays.asList(PDType1Font.SYMBOL, PDType1Font.HELVETICA)));
+        assertEquals(PDType1Font.HELVETICA.getStringWidth(expected) * (10.0f / 960f), StringManager.getStringWidth(PDType1Font.HELVETICA, 10.0f, text));
+
+        String supported = "nothing to replace";
+        assertSame(supported, StringManager.replaceUnsupportedCharacters(supported, PDType1Font.HELVETICA));
+    }
+
+    @Test
+    public void testLatin1FastPathMatchesGeneralPath() throws IOException {
+        List<String> texts = Arrays.asList("org.apache.commons:commons-lang3:3.12.0", "Biblioth\u00e8que \u00fcber \u00ff", "tab\tand\u0080control", "Latin-1 then \u4e2d\u6587 and \u00e9", "");
+        PDFontMetrics fontMetrics = PDFontMetrics.of(PDType1Font.TIMES_ROMAN);
+        for (String text : texts) {
+            assertEquals(fontMetrics.getCodePointStringWidth(PDType1Font.TIMES_ROMAN, text), fontMetrics.getStringWidth(PDType1Font.TIMES_ROMAN, text), text);
+            assertEquals(StringManager.replaceUnsupportedCodePoints(text, Arrays.asList(PDType1Font.TIMES_ROMAN), RenderingListener.NO_OP), StringManager.replaceUnsupportedCharacters(text, PDType1Font.TIMES_ROMAN), text);
+        }
+        assertTrue(fontMetrics.canEncodeLatin1(PDType1Font.TIMES_ROMAN, texts.get(1)));
+        assertFalse(fontMetrics.canEncodeLatin1(PDType1Font.TIMES_ROMAN, texts.get(2)));
+        assertFalse(fontMetrics.canEncodeLatin1(PDType1Font.TIMES_ROMAN, texts.get(3)));
+    }
+
     @ParameterizedTest
     @MethodSource("provideStringWrappingDataStream")
     public void testStringWrapping(StringWrappingData stringWrappingData) throws IOException {
@@ -28,6 +57,43 @@ public class StringManagerTest {
         assertEquals(stringWrappingData.expectedResults, actualResults);
     }
 
+    @Test
+    public void testLargeInputWrapsInLinearTime() throws IOException {
+        String text = createLargeText(100 * 1024);
+        String fourTimesText = createLargeText(4 * 100 * 1024);
+
+        List<String> lines = assertTimeout(Duration.ofSeconds(10), () -> StringManager.wrapToCombinedList(PDType1Font.HELVETICA, 10.0f, text, 200));
+        assertTrue(lines.size() > 100);
+        String singleWord = text.replace(' ', 'x');
+        assertTimeout(Duration.ofSeconds(10), () -> StringManager.wrapToCombinedList(PDType1Font.HELVETICA, 10.0f, singleWord, 200));
+
+        long wrapNanos = fastestWrapNanos(text);
+        long fourTimesWrapNanos = fastestWrapNanos(fourTimesText);
+        // linear growth is 4x, quadratic growth would be 16x
+        assertTrue(fourTimesWrapNanos < wrapNanos * 10, String.format("100 KB took %d ns but 400 KB took %d ns", wrapNanos, fourTimesWrapNanos));
+    }
+
+    private String createLargeText(int length) {
+        String[] words = { "license", "Apache-2.0", "/usr/local/lib/node_modules/some-really-long-package-name/dist/index.js", "component", "reallyreallylonglongreallyreallylonglongreallyreallylonglong", "of", "version 1.2.3" };
+        StringBuilder builder = new StringBuilder(length + 100);
+        int wordIndex = 0;
+        while (builder.length() < length) {
+            builder.append(words[wordIndex % words.length]).append(' ');
+            wordIndex += 3;
+        }
+        return builder.toString();
+    }
+
+    private long fastestWrapNanos(String text) throws IOException {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            StringManager.wrapToCombinedList(PDType1Font.HELVETICA, 10.0f, text, 200);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
     private List<String> getActualResults(StringWrappingData stringWrappingData) throws IOException {
         return StringManager.wrapToCombinedList(PDType1Font.HELVETICA, stringWrappingData.fontSize, stringWrappingData.text, stringWrappingData.widthLimit);
     }
@@ -0,0 +1,78 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+public class TableRendererTest {
+    private static final List<TableColumn> COLUMNS = Arrays.asList(
+        new TableColumn(20, 150, PDType1Font.HELVETICA_BOLD, 9, Color.BLACK),
+        new TableColumn(180, 200, PDType1Font.HELVETICA, 8, Color.DARK_GRAY),
+        new TableColumn(390, 180, PDType1Font.TIMES_ROMAN, 8, Color.BLUE)
+    );
+
+    @Test
+    public void testParallelLayoutIsByteIdentical() throws IOException {
+        List<List<String>> rows = createRows(2000);
+        TableRenderer tableRenderer = new TableRenderer(COLUMNS, 4);
+
+        File sequentialFile = createTempPdf();
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(sequentialFile, new PDDocument())) {
+            tableRenderer.render(pdfBoxManager, 750, rows);
+            setFixedDocumentId(pdfBoxManager);
+        }
+
+        File parallelFile = createTempPdf();
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try (PDFBoxManager pdfBoxManager = new PDFBoxManager(parallelFile, new PDDocument())) {
+            tableRenderer.renderInParallel(pdfBoxManager, 750, rows, forkJoinPool);
+            setFixedDocumentId(pdfBoxManager);
+            assertTrue(pdfBoxManager.getPageCount() > 10);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        assertArrayEquals(Files.readAllBytes(sequentialFile.toPath()), Files.readAllBytes(parallelFile.toPath()));
+    }
+
+    private List<List<String>> createRows(int rowCount) {
+        List<List<String>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String componentName = "component-" + i + (i % 7 == 0 ? "-with-an-unusually-long-artifact-identifier" : "");
+            String license = i % 3 == 0 ? "Apache License 2.0 OR GNU General Public License v2.0 with Classpath Exception" : "MIT License";
+            String path = "/opt/app/lib/" + componentName + "/" + i + "/dist/bundle.min.js";
+            rows.add(Arrays.asList(componentName, license, path));
+        }
+        return rows;
+    }
+
+    private void setFixedDocumentId(PDFBoxManager pdfBoxManager) {
+        // the generated id contains the save time, which would make otherwise identical documents differ
+        COSArray id = new COSArray();
+        id.add(new COSString("table-renderer-test"));
+        id.add(new COSString("table-renderer-test"));
+        pdfBoxManager.document.getDocument().getTrailer().setItem(COSName.ID, id);
+    }
+
+    private File createTempPdf() throws IOException {
+        File outputFile = File.createTempFile("table-renderer-test", ".pdf");
+        outputFile.deleteOnExit();
+        return outputFile;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.synopsys.integration.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+public class WrapCacheTest {
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+    private static final String LICENSE_NAME = "GNU Lesser General Public License v2.1 or later with Classpath Exception";
+
+    @Test
+    public void testRepeatedTextIsWrappedOnce() throws IOException {
+        WrapCache wrapCache = new WrapCache(16);
+        List<String> lines = wrapCache.wrap(PDType1Font.HELVETICA, 10, LICENSE_NAME, 100);
+        assertEquals(StringManager.wrapToCombinedList(PDType1Font.HELVETICA, 10, LICENSE_NAME, 100), lines);
+        assertSame(lines, wrapCache.wrap(PDType1Font.HELVETICA, 10, LICENSE_NAME, 100));
+
+        // every part of the key counts
+        assertNotSame(lines, wrapCache.wrap(PDType1Font.HELVETICA_BOLD, 10, LICENSE_NAME, 100));
+        assertNotSame(lines, wrapCache.wrap(PDType1Font.HELVETICA, 11, LICENSE_NAME, 100));
+        assertNotSame(lines, wrapCache.wrap(PDType1Font.HELVETICA, 10, LICENSE_NAME, 120));
+        assertNotSame(lines, wrapCache.wrap(PDType1Font.HELVETICA, 10, LICENSE_NAME + " ", 100));
+
+        assertEquals(1, wrapCache.getHitCount());
+        assertEquals(5, wrapCache.getMissCount());
+        assertEquals(5, wrapCache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        WrapCache wrapCache = new WrapCache(2);
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "Critical", 100);
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "High", 100);
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "Critical", 100);
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "Medium", 100);
+        assertEquals(1, wrapCache.getEvictionCount());
+        assertEquals(2, wrapCache.size());
+
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "Critical", 100);
+        assertEquals(2, wrapCache.getHitCount());
+        wrapCache.wrap(PDType1Font.HELVETICA, 10, "High", 100);
+        assertEquals(4, wrapCache.getMissCount());
+    }
+
+    @Test
+    public void testConcurrentDocumentsShareTheCache() throws IOException, InterruptedException, ExecutionException {
+        WrapCache wrapCache = new WrapCache(64);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> pageCounts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                pageCounts.add(executorService.submit(() -> {
+                    try (PDFBoxManager pdfBoxManager = PDFBoxManager.createMeasuring()) {
+                        pdfBoxManager.setWrapCache(wrapCache);
+                        float y = 750;
+                        for (int row = 0; row < 200; row++) {
+                            y = pdfBoxManager.writeWrappedText(20, y - 12, 100, LICENSE_NAME + " " + row % 10, PDType1Font.HELVETICA, 10, Color.BLACK).getLowerLeftY();
+                        }
+                        return pdfBoxManager.getPageCount();
+                    }
+                }));
+            }
+            for (Future<Integer> pageCount : pageCounts) {
+                assertEquals(pageCounts.get(0).get(), pageCount.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(10, wrapCache.size());
+        assertEquals(8 * 200, wrapCache.getHitCount() + wrapCache.getMissCount());
+        assertEquals(0, wrapCache.getEvictionCount());
+    }
+
+    @Test
+    public void testDocumentsShareEntriesForRegistryFontsWithoutKeepingThemAlive() throws IOException {
+        WrapCache wrapCache = new WrapCache(16);
+        try (FontRegistry fontRegistry = new FontRegistry()) {
+            WeakReference<PDFont> firstFont = wrapInNewDocument(wrapCache, fontRegistry);
+            WeakReference<PDFont> secondFont = wrapInNewDocument(wrapCache, fontRegistry);
+            assertEquals(1, wrapCache.getHitCount());
+            assertEquals(1, wrapCache.size());
+
+            for (int i = 0; i < 10 && (null != firstFont.get() || null != secondFont.get()); i++) {
+                System.gc();
+            }
+            assertNull(firstFont.get());
+            assertNull(secondFont.get());
+        }
+    }
+
+    private WeakReference<PDFont> wrapInNewDocument(WrapCache wrapCache, FontRegistry fontRegistry) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDFont font = fontRegistry.loadFont(document, getClass(), FONT_RESOURCE);
+            wrapCache.wrap(font, 10, LICENSE_NAME, 100);
+            return new WeakReference<>(font);
+        }
+    }
+
+}